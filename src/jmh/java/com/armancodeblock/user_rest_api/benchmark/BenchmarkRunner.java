@@ -0,0 +1,167 @@
+package com.armancodeblock.user_rest_api.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+// Entry point of the benchmark profile. Runs JMH with the usual command line options, writes the
+// results as JSON to target/jmh-result.json and compares every score with the stored baseline.
+// Exits with status 1 when a benchmark got slower than the threshold, so it can gate a rollout.
+// A change only counts when it is also larger than the combined score error of both runs,
+// so noisy benchmarks do not fail the build on jitter. That makes the gate only as good as the baseline:
+// a recording whose error is above the threshold is refused (smoke runs like -wi 1 -i 1 -f 1 produce those),
+// record it with the default warmup, iterations and forks on the machine that runs the gate.
+// Benchmarks that have no baseline entry are listed, not silently passed.
+//
+//   -Djmh.baseline=src/jmh/baseline.json   baseline file (JMH JSON result format)
+//   -Djmh.threshold=0.10                   allowed relative regression
+//   -Djmh.updateBaseline=true              replace the baseline with this run instead of comparing
+public class BenchmarkRunner {
+
+    private static final Path RESULT = Path.of("target", "jmh-result.json");
+
+    public static void main(String[] args) throws Exception {
+        Path baseline = Path.of(System.getProperty("jmh.baseline", "src/jmh/baseline.json"));
+        double threshold = Double.parseDouble(System.getProperty("jmh.threshold", "0.10"));
+        boolean updateBaseline = Boolean.getBoolean("jmh.updateBaseline");
+
+        Files.createDirectories(RESULT.getParent());
+        new Runner(new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .resultFormat(ResultFormatType.JSON)
+                .result(RESULT.toString())
+                .build()).run();
+
+        if (updateBaseline) {
+            Map<String, Score> scores = readScores(RESULT);
+            List<String> noisy = noisy(scores, threshold);
+            if (!noisy.isEmpty()) {
+                System.out.println("Not recording a baseline, score error above " + (int) (threshold * 100) + "%:");
+                noisy.forEach(line -> System.out.println("  " + line));
+                System.exit(1);
+            }
+            writeBaseline(scores, baseline);
+            System.out.println("Baseline updated: " + baseline);
+            return;
+        }
+        if (!Files.exists(baseline)) {
+            System.out.println("No baseline at " + baseline + ", run with -Djmh.updateBaseline=true to create one");
+            return;
+        }
+        Map<String, Score> before = readScores(baseline);
+        Map<String, Score> current = readScores(RESULT);
+        List<String> missing = missing(before, current);
+        if (!missing.isEmpty()) {
+            System.out.println("No baseline entry, not compared:");
+            missing.forEach(name -> System.out.println("  " + name));
+        }
+        List<String> regressions = compare(before, current, threshold);
+        if (!regressions.isEmpty()) {
+            System.out.println("Regressions above " + (int) (threshold * 100) + "%:");
+            regressions.forEach(line -> System.out.println("  " + line));
+            System.exit(1);
+        }
+        System.out.println("No regressions above " + (int) (threshold * 100) + "% against " + baseline);
+    }
+
+    static List<String> compare(Map<String, Score> baseline, Map<String, Score> current, double threshold) {
+        List<String> regressions = new ArrayList<>();
+        current.forEach((name, score) -> {
+            Score before = baseline.get(name);
+            if (before == null || !before.unit().equals(score.unit())) {
+                return;
+            }
+            // throughput modes are "higher is better", time modes "lower is better"
+            double delta = score.higherIsBetter() ? before.value() - score.value() : score.value() - before.value();
+            double change = delta / before.value();
+            if (change > threshold && delta > before.error() + score.error()) {
+                regressions.add(String.format("%s: %.3f -> %.3f %s (%+.1f%%)",
+                        name, before.value(), score.value(), score.unit(), change * 100));
+            }
+        });
+        return regressions;
+    }
+
+    // benchmarks of this run that the baseline can't judge: not in it, or recorded in another unit
+    static List<String> missing(Map<String, Score> baseline, Map<String, Score> current) {
+        List<String> missing = new ArrayList<>();
+        current.forEach((name, score) -> {
+            Score before = baseline.get(name);
+            if (before == null) {
+                missing.add(name);
+            } else if (!before.unit().equals(score.unit())) {
+                missing.add(name + " (baseline in " + before.unit() + ", now " + score.unit() + ")");
+            }
+        });
+        return missing;
+    }
+
+    // scores too noisy to gate a regression of threshold, or without an error estimate (a single iteration)
+    static List<String> noisy(Map<String, Score> scores, double threshold) {
+        List<String> noisy = new ArrayList<>();
+        scores.forEach((name, score) -> {
+            double error = score.run().path("primaryMetric").path("scoreError").asDouble(Double.NaN);
+            if (Double.isNaN(error)) {
+                noisy.add(name + ": no score error, run more iterations");
+            } else if (score.error() > threshold * Math.abs(score.value())) {
+                noisy.add(String.format("%s: %.3f +- %.3f %s", name, score.value(), score.error(), score.unit()));
+            }
+        });
+        return noisy;
+    }
+
+    // reads the JMH JSON result format; the baseline is written in a trimmed-down version of the same format
+    static Map<String, Score> readScores(Path file) throws IOException {
+        Map<String, Score> scores = new TreeMap<>();
+        for (JsonNode run : new ObjectMapper().readTree(file.toFile())) {
+            StringBuilder name = new StringBuilder(run.path("benchmark").asText());
+            Iterator<Map.Entry<String, JsonNode>> params = run.path("params").fields();
+            while (params.hasNext()) {
+                Map.Entry<String, JsonNode> param = params.next();
+                name.append(' ').append(param.getKey()).append('=').append(param.getValue().asText());
+            }
+            JsonNode metric = run.path("primaryMetric");
+            // JMH reports "NaN" as the error of single-iteration runs
+            double error = metric.path("scoreError").asDouble(0);
+            scores.put(name.toString(), new Score(run, metric.path("score").asDouble(),
+                    Double.isNaN(error) ? 0 : error, metric.path("scoreUnit").asText(),
+                    "thrpt".equals(run.path("mode").asText())));
+        }
+        return scores;
+    }
+
+    private static void writeBaseline(Map<String, Score> scores, Path baseline) throws IOException {
+        ObjectMapper mapper = new ObjectMapper();
+        ArrayNode runs = mapper.createArrayNode();
+        for (Score score : scores.values()) {
+            ObjectNode run = runs.addObject();
+            run.put("benchmark", score.run().path("benchmark").asText());
+            run.put("mode", score.run().path("mode").asText());
+            if (score.run().has("params")) {
+                run.set("params", score.run().get("params"));
+            }
+            ObjectNode metric = run.putObject("primaryMetric");
+            metric.put("score", score.value());
+            metric.put("scoreError", score.error());
+            metric.put("scoreUnit", score.unit());
+        }
+        mapper.writerWithDefaultPrettyPrinter().writeValue(baseline.toFile(), runs);
+    }
+
+    record Score(JsonNode run, double value, double error, String unit, boolean higherIsBetter) {
+    }
+}
@@ -0,0 +1,109 @@
+package com.armancodeblock.user_rest_api.logging;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.util.LogbackMDCAdapter;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.FileAppender;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+// Caller-side cost of the log statements on the login/JWT paths, with the appender setups from logback-spring.xml:
+// "sync" writes each event to the file on the calling thread (the default console setup),
+// "async" hands it to an AsyncAppender (prod profile: bounded queue, drop below WARN near full, never block).
+// The async numbers include dropped events, that's the point: request threads stop paying for slow output.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+@Fork(1)
+public class LoggingBenchmark {
+
+    @Param({"sync", "async"})
+    public String appender;
+
+    private LoggerContext context;
+    private Path file;
+    private Logger logger;
+    private final String username = "admin";
+    private final UsernamePasswordAuthenticationToken creds = new UsernamePasswordAuthenticationToken("admin", "adminPass");
+
+    @Setup
+    public void setUp() throws IOException {
+        context = new LoggerContext();
+        // a bare context has no MDC adapter and every event pays for a failed lookup
+        context.setMDCAdapter(new LogbackMDCAdapter());
+        file = Files.createTempFile("logging-benchmark", ".log");
+
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(context);
+        encoder.setPattern("%d{yyyy-MM-dd'T'HH:mm:ss.SSSXXX} %5p [%t] %-40.40logger{39} : %m%n");
+        encoder.start();
+
+        FileAppender<ILoggingEvent> fileAppender = new FileAppender<>();
+        fileAppender.setContext(context);
+        fileAppender.setFile(file.toString());
+        fileAppender.setEncoder(encoder);
+        fileAppender.start();
+
+        Appender<ILoggingEvent> root = fileAppender;
+        if ("async".equals(appender)) {
+            AsyncAppender async = new AsyncAppender();
+            async.setContext(context);
+            async.setQueueSize(8192);
+            async.setDiscardingThreshold(1024);
+            async.setNeverBlock(true);
+            async.setIncludeCallerData(false);
+            async.addAppender(fileAppender);
+            async.start();
+            root = async;
+        }
+        Logger rootLogger = context.getLogger(Logger.ROOT_LOGGER_NAME);
+        rootLogger.setLevel(Level.INFO);
+        rootLogger.addAppender(root);
+        logger = context.getLogger("com.armancodeblock.user_rest_api.controller.LoginController");
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        context.stop();
+        Files.deleteIfExists(file);
+    }
+
+    // an enabled INFO line, as LoginController used to write on every login
+    @Benchmark
+    public void infoParameterized() {
+        logger.info("Login attempt for user {}", username);
+    }
+
+    // the old "Creds Object: " + creds warning, written on every login
+    @Benchmark
+    public void warnConcatenated() {
+        logger.warn("Creds Object: " + creds);
+    }
+
+    // disabled level: the concatenation (and the token's toString) still runs
+    @Benchmark
+    public void debugConcatenated() {
+        logger.debug("Creds Object: " + creds);
+    }
+
+    // disabled level, guarded: what the controller/security packages do now
+    @Benchmark
+    public void debugGuarded() {
+        if (logger.isDebugEnabled()) {
+            logger.debug("Login attempt for user {}", username);
+        }
+    }
+}
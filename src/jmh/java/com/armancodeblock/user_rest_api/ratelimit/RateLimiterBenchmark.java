@@ -0,0 +1,40 @@
+package com.armancodeblock.user_rest_api.ratelimit;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Cost of the admission decision on the request path, contended (one hot key) and spread over many clients.
+// A 50k rps budget is 20µs per request; this should stay in the tens of nanoseconds.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class RateLimiterBenchmark {
+
+    private RateLimiter limiter;
+    private String[] clients;
+
+    @Setup
+    public void setUp() {
+        limiter = new RateLimiter(50_000, 1_000, 100_000);
+        clients = new String[10_000];
+        for (int i = 0; i < clients.length; i++) {
+            clients[i] = "10.0." + (i / 256) + "." + (i % 256);
+        }
+    }
+
+    @Benchmark
+    public long singleHotClient() {
+        return limiter.tryAcquire("10.0.0.1", System.nanoTime());
+    }
+
+    @Benchmark
+    public long manyClients() {
+        return limiter.tryAcquire(clients[ThreadLocalRandom.current().nextInt(clients.length)], System.nanoTime());
+    }
+}
@@ -0,0 +1,111 @@
+package com.armancodeblock.user_rest_api.readmodel;
+
+import com.armancodeblock.user_rest_api.enity.User;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+// CompactUserStore against the obvious on-heap alternative, a ConcurrentHashMap<Long, User>.
+// Footprint per user (retained heap after a full GC) is printed once per trial, lookups are measured by JMH:
+//   mvn -Pbenchmark test-compile exec:exec -Djmh.args="CompactUserStoreBenchmark"
+// Names come from a pool of 400 (first x last), emails are unique, like the users table.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xms4g", "-Xmx4g"})
+public class CompactUserStoreBenchmark {
+
+    private static final String[] FIRST = {"John", "Jane", "Maria", "Ahmed", "Wei", "Olga", "Carlos", "Aisha",
+            "Liam", "Emma", "Noah", "Sofia", "Arman", "Yuki", "Pierre", "Fatima", "Ivan", "Chloe", "Mateo", "Zara"};
+    private static final String[] LAST = {"Smith", "Johnson", "Garcia", "Khan", "Wang", "Ivanova", "Lopez",
+            "Okafor", "Brown", "Martin", "Rossi", "Tanaka", "Dubois", "Nguyen", "Schmidt", "Silva", "Kowalski",
+            "Haddad", "Novak", "Larsen"};
+
+    @Param({"1000000"})
+    public int users;
+
+    private CompactUserStore store;
+    private Map<Long, User> map;
+
+    @Setup
+    public void setUp() {
+        map = measure("ConcurrentHashMap<Long, User>", () -> {
+            Map<Long, User> m = new ConcurrentHashMap<>(users * 2);
+            for (long id = 1; id <= users; id++) {
+                m.put(id, user(id));
+            }
+            return m;
+        });
+        store = measure("CompactUserStore", () -> {
+            CompactUserStore s = new CompactUserStore(users);
+            for (long id = 1; id <= users; id++) {
+                s.put(user(id));
+            }
+            return s;
+        });
+    }
+
+    private static User user(long id) {
+        // new String per user, as entities loaded from the database would have
+        return new User(id, new String(FIRST[(int) (id % 20)] + " " + LAST[(int) (id / 20 % 20)]),
+                "user" + id + "@example.com");
+    }
+
+    private <T> T measure(String name, Supplier<T> build) {
+        long before = usedHeap();
+        T built = build.get();
+        long after = usedHeap();
+        System.out.printf("%n%s: %d bytes per user%n", name, (after - before) / users);
+        return built;
+    }
+
+    private static long usedHeap() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    private long randomId() {
+        return ThreadLocalRandom.current().nextLong(1, users + 1);
+    }
+
+    @Benchmark
+    public User mapGet() {
+        return map.get(randomId());
+    }
+
+    @Benchmark
+    public User compactGet() {
+        return store.get(randomId());
+    }
+
+    @Benchmark
+    @Threads(4)
+    public User mapGetContended() {
+        return map.get(randomId());
+    }
+
+    // readers racing a writer, the case the optimistic reads are for
+    @Benchmark
+    @Group("compactReadWrite")
+    @GroupThreads(3)
+    public User compactGetWhileWriting() {
+        return store.get(randomId());
+    }
+
+    @Benchmark
+    @Group("compactReadWrite")
+    @GroupThreads(1)
+    public void compactPut() {
+        long id = randomId();
+        store.put(new User(id, FIRST[(int) (id % 20)] + " " + LAST[(int) (id / 20 % 20)], "moved" + id + "@example.com"));
+    }
+}
@@ -0,0 +1,108 @@
+package com.armancodeblock.user_rest_api.search;
+
+import com.armancodeblock.user_rest_api.UserRestApiApplication;
+import com.armancodeblock.user_rest_api.enity.User;
+import com.armancodeblock.user_rest_api.repository.UserRepository;
+import com.armancodeblock.user_rest_api.service.UserService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Ranked search (/api/v1/users/search/ranked) against the prefix search support used before.
+// Default is the embedded H2 fallback with 100k rows. The real numbers come from PostgreSQL with the trigram
+// indexes at 10M rows:
+//   -Dbench.datasource.url=jdbc:postgresql://localhost:5432/user_db -Dbench.datasource.username=postgres
+//   -Dbench.datasource.password=... with jmh.args="UserSearchBenchmark -p rows=10000000"
+// Rows are only inserted up to the requested count, so the 10M load happens once per database.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserSearchBenchmark {
+
+    private static final String[] FIRST = {"John", "Jane", "Maria", "Ahmed", "Wei", "Olga", "Carlos", "Aisha",
+            "Liam", "Emma", "Noah", "Sofia", "Arman", "Yuki", "Pierre", "Fatima", "Ivan", "Chloe", "Mateo", "Zara"};
+    private static final String[] LAST = {"Smith", "Johnson", "Garcia", "Khan", "Wang", "Ivanova", "Lopez",
+            "Okafor", "Brown", "Martin", "Rossi", "Tanaka", "Dubois", "Nguyen", "Schmidt", "Silva", "Kowalski",
+            "Haddad", "Novak", "Larsen"};
+
+    @Param({"100000"})
+    public int rows;
+
+    // exact word, typo, substring of the email
+    @Param({"smith", "jhon smiht", "kowal"})
+    public String query;
+
+    private ConfigurableApplicationContext context;
+    private UserService userService;
+    private UserRepository userRepository;
+    private SearchCursor secondPage;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SpringApplication app = new SpringApplication(UserRestApiApplication.class);
+        app.setWebApplicationType(WebApplicationType.NONE);
+        app.setAdditionalProfiles("test");
+        String url = System.getProperty("bench.datasource.url", "jdbc:h2:mem:bench_search;DB_CLOSE_DELAY=-1");
+        context = app.run(
+                "--spring.datasource.url=" + url,
+                "--spring.datasource.username=" + System.getProperty("bench.datasource.username", "sa"),
+                "--spring.datasource.password=" + System.getProperty("bench.datasource.password", "password"),
+                "--spring.jpa.properties.hibernate.dialect=" + (url.startsWith("jdbc:h2")
+                        ? "org.hibernate.dialect.H2Dialect" : "org.hibernate.dialect.PostgreSQLDialect"),
+                "--users.cache.enabled=false",
+                "--spring.jpa.show-sql=false",
+                "--logging.level.root=WARN");
+        userService = context.getBean(UserService.class);
+        userRepository = context.getBean(UserRepository.class);
+        load(context.getBean(JdbcTemplate.class));
+        UserSearchPage first = userService.searchUsers(query, null, 20);
+        secondPage = first.next() == null ? null : SearchCursor.decode(first.next());
+    }
+
+    private void load(JdbcTemplate jdbcTemplate) {
+        long existing = userRepository.count();
+        List<Object[]> batch = new ArrayList<>(10_000);
+        for (long i = existing; i < rows; i++) {
+            String first = FIRST[(int) (i % FIRST.length)];
+            String last = LAST[(int) ((i / FIRST.length) % LAST.length)];
+            batch.add(new Object[]{first + " " + last + " " + i,
+                    first.toLowerCase() + "." + last.toLowerCase() + i + "@example.com"});
+            if (batch.size() == 10_000 || i == rows - 1) {
+                jdbcTemplate.batchUpdate("INSERT INTO users (name, email) VALUES (?, ?)", batch);
+                batch.clear();
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public UserSearchPage rankedFirstPage() {
+        return userService.searchUsers(query, null, 20);
+    }
+
+    @Benchmark
+    public UserSearchPage rankedSecondPage() {
+        return userService.searchUsers(query, secondPage, 20);
+    }
+
+    // what support used before: exact name prefix only, case sensitive, no typos
+    @Benchmark
+    public Page<User> prefixSearch() {
+        return userService.getAllUserByNamePrefix(query, PageRequest.of(0, 20));
+    }
+}
@@ -0,0 +1,58 @@
+package com.armancodeblock.user_rest_api.security;
+
+import io.micrometer.core.instrument.observation.DefaultMeterObservationHandler;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.provisioning.InMemoryUserDetailsManager;
+
+import java.util.concurrent.TimeUnit;
+
+// Per-request cost of JwtAuthenticationFilter. Run with "-prof gc" and look at gc.alloc.rate.norm
+// to see the bytes allocated per request.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtAuthenticationFilterBenchmark {
+
+    private JwtAuthenticationFilter filter;
+    private MockHttpServletRequest anonymousGet;
+    private MockHttpServletRequest authenticatedGet;
+    private MockHttpServletResponse response;
+    private final FilterChain chain = (req, res) -> { };
+
+    @Setup
+    public void setUp() {
+        JwtService jwtService = new JwtService();
+        InMemoryUserDetailsManager userDetailsService = new InMemoryUserDetailsManager(
+                User.withUsername("admin").password("{noop}adminPass").roles("ADMIN").build());
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ObservationRegistry observationRegistry = ObservationRegistry.create();
+        observationRegistry.observationConfig().observationHandler(new DefaultMeterObservationHandler(meterRegistry));
+        filter = new JwtAuthenticationFilter(jwtService, userDetailsService, observationRegistry, meterRegistry);
+
+        anonymousGet = new MockHttpServletRequest("GET", "/api/v1/users/1");
+        authenticatedGet = new MockHttpServletRequest("GET", "/api/v1/users/1");
+        authenticatedGet.addHeader("Authorization", "Bearer " + jwtService.getToken("admin"));
+        response = new MockHttpServletResponse();
+    }
+
+    @Benchmark
+    public void anonymousPublicGet() throws Exception {
+        filter.doFilter(anonymousGet, response, chain);
+    }
+
+    @Benchmark
+    public void authenticatedGet() throws Exception {
+        filter.doFilter(authenticatedGet, response, chain);
+        SecurityContextHolder.clearContext();
+    }
+}
@@ -0,0 +1,33 @@
+package com.armancodeblock.user_rest_api.security;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtServiceBenchmark {
+
+    private JwtService jwtService;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtService = new JwtService();
+        token = jwtService.getToken("admin");
+    }
+
+    @Benchmark
+    public String sign() {
+        return jwtService.getToken("admin");
+    }
+
+    @Benchmark
+    public String verify() {
+        return jwtService.getUsernameFromToken(token);
+    }
+}
@@ -0,0 +1,96 @@
+package com.armancodeblock.user_rest_api.service;
+
+import com.armancodeblock.user_rest_api.UserRestApiApplication;
+import com.armancodeblock.user_rest_api.enity.User;
+import com.armancodeblock.user_rest_api.repository.UserRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// UserService against a real Spring context and database.
+// "h2" is the embedded test database, "postgres" is H2 in PostgreSQL compatibility mode as a local stand-in;
+// pass -Dbench.datasource.url/-username/-password to point the "postgres" variant at a real server.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserServiceBenchmark {
+
+    private static final int USERS = 10_000;
+
+    @Param({"h2", "postgres"})
+    public String database;
+
+    private ConfigurableApplicationContext context;
+    private UserService userService;
+    private long firstId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SpringApplication app = new SpringApplication(UserRestApiApplication.class);
+        app.setWebApplicationType(WebApplicationType.NONE);
+        app.setAdditionalProfiles("test");
+        String url = datasourceUrl();
+        // command line arguments, so they win over application-test.properties
+        context = app.run(
+                "--spring.datasource.url=" + url,
+                "--spring.datasource.username=" + System.getProperty("bench.datasource.username", "sa"),
+                "--spring.datasource.password=" + System.getProperty("bench.datasource.password", "password"),
+                "--spring.jpa.properties.hibernate.dialect=" + (url.startsWith("jdbc:h2")
+                        ? "org.hibernate.dialect.H2Dialect" : "org.hibernate.dialect.PostgreSQLDialect"),
+                "--spring.jpa.show-sql=false",
+                "--logging.level.root=WARN");
+        userService = context.getBean(UserService.class);
+
+        UserRepository repository = context.getBean(UserRepository.class);
+        repository.deleteAll();
+        List<User> users = new ArrayList<>(USERS);
+        for (int i = 0; i < USERS; i++) {
+            users.add(new User("User Number " + i, "user" + i + "@example.com"));
+        }
+        firstId = repository.saveAll(users).get(0).getUserId();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    private String datasourceUrl() {
+        if ("postgres".equals(database)) {
+            return System.getProperty("bench.datasource.url",
+                    "jdbc:h2:mem:bench_pg;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH");
+        }
+        return "jdbc:h2:mem:bench_h2";
+    }
+
+    @Benchmark
+    public User getUserById() {
+        return userService.getUserById(firstId + ThreadLocalRandom.current().nextInt(USERS));
+    }
+
+    @Benchmark
+    public Page<User> getAllUsers() {
+        return userService.getAllUsers(PageRequest.of(ThreadLocalRandom.current().nextInt(USERS / 20), 20));
+    }
+
+    @Benchmark
+    public List<User> searchByPrefix() {
+        return userService.getAllUsersByNamePrefix("User Number 99");
+    }
+
+    @Benchmark
+    public User createUser() {
+        return userService.createUser(new User("Bench User", "bench@example.com"));
+    }
+}
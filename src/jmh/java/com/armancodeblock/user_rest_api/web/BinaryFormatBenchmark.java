@@ -0,0 +1,91 @@
+package com.armancodeblock.user_rest_api.web;
+
+import com.armancodeblock.user_rest_api.enity.User;
+import com.armancodeblock.user_rest_api.json.JsonConfig;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Encode and decode cost of the page and user bodies per negotiated format, with the application's
+// mapper configuration (json.JsonConfig). Payload sizes are printed once per trial, e.g.
+//   mvn -Pbenchmark test-compile exec:exec -Djmh.args="BinaryFormatBenchmark"
+// Decoding goes into the envelope a client would bind, the same model for every format.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BinaryFormatBenchmark {
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public record UserPage(List<User> content, long totalElements, int totalPages, int number, int size) {
+    }
+
+    @Param({"json", "cbor", "smile"})
+    public String format;
+
+    @Param({"20", "200"})
+    public int pageSize;
+
+    private ObjectMapper mapper;
+    private User user;
+    private Page<User> page;
+    private byte[] userBytes;
+    private byte[] pageBytes;
+
+    @Setup
+    public void setUp() throws Exception {
+        JsonFactory factory = switch (format) {
+            case "cbor" -> new CBORFactory();
+            case "smile" -> new SmileFactory();
+            default -> JsonConfig.pooledJsonFactory(256);
+        };
+        mapper = Jackson2ObjectMapperBuilder.json()
+                .factory(factory)
+                .modulesToInstall(new BlackbirdModule(), JsonConfig.userApiModule())
+                .build();
+        user = new User(42L, "John Doe", "john@example.com");
+        List<User> content = new ArrayList<>();
+        for (int i = 0; i < pageSize; i++) {
+            content.add(new User((long) i, "User Number " + i, "user" + i + "@example.com"));
+        }
+        page = new PageImpl<>(content, PageRequest.of(0, pageSize), 10_000);
+        userBytes = mapper.writeValueAsBytes(user);
+        pageBytes = mapper.writeValueAsBytes(page);
+        System.out.printf("%n%s payload: user %d bytes, page of %d %d bytes%n",
+                format, userBytes.length, pageSize, pageBytes.length);
+    }
+
+    @Benchmark
+    public byte[] encodeUser() throws Exception {
+        return mapper.writeValueAsBytes(user);
+    }
+
+    @Benchmark
+    public byte[] encodePage() throws Exception {
+        return mapper.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public User decodeUser() throws Exception {
+        return mapper.readValue(userBytes, User.class);
+    }
+
+    @Benchmark
+    public UserPage decodePage() throws Exception {
+        return mapper.readValue(pageBytes, UserPage.class);
+    }
+}
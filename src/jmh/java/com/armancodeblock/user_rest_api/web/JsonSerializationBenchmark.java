@@ -0,0 +1,82 @@
+package com.armancodeblock.user_rest_api.web;
+
+import com.armancodeblock.user_rest_api.enity.User;
+import com.armancodeblock.user_rest_api.json.JsonConfig;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Jackson cost of the bodies UserController returns, with the ObjectMapper configuration Spring Boot uses.
+// user/page: plain bean serializers (reflection), *Blackbird: generated accessors only,
+// *Tuned: what the application runs with (json.JsonConfig: hand-written User/Page serializers, Blackbird, pooled buffers).
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsonSerializationBenchmark {
+
+    @Param({"20", "200"})
+    public int pageSize;
+
+    private ObjectMapper objectMapper;
+    private ObjectMapper blackbird;
+    private ObjectMapper tuned;
+    private User user;
+    private Page<User> page;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        blackbird = Jackson2ObjectMapperBuilder.json().modulesToInstall(new BlackbirdModule()).build();
+        tuned = Jackson2ObjectMapperBuilder.json()
+                .factory(JsonConfig.pooledJsonFactory(256))
+                .modulesToInstall(new BlackbirdModule(), JsonConfig.userApiModule())
+                .build();
+        user = new User("John Doe", "john@example.com");
+        List<User> content = new ArrayList<>();
+        for (int i = 0; i < pageSize; i++) {
+            content.add(new User("User Number " + i, "user" + i + "@example.com"));
+        }
+        page = new PageImpl<>(content, PageRequest.of(0, pageSize), 10_000);
+    }
+
+    @Benchmark
+    public byte[] user() throws Exception {
+        return objectMapper.writeValueAsBytes(user);
+    }
+
+    @Benchmark
+    public byte[] page() throws Exception {
+        return objectMapper.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public byte[] userBlackbird() throws Exception {
+        return blackbird.writeValueAsBytes(user);
+    }
+
+    @Benchmark
+    public byte[] pageBlackbird() throws Exception {
+        return blackbird.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public byte[] userTuned() throws Exception {
+        return tuned.writeValueAsBytes(user);
+    }
+
+    @Benchmark
+    public byte[] pageTuned() throws Exception {
+        return tuned.writeValueAsBytes(page);
+    }
+}
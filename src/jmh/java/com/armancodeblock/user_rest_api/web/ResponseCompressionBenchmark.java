@@ -0,0 +1,48 @@
+package com.armancodeblock.user_rest_api.web;
+
+import com.armancodeblock.user_rest_api.enity.User;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+// CPU cost of gzipping user JSON of different sizes, the work Tomcat does when server.compression is on.
+// Use it to pick server.compression.min-response-size: below a few KB the saved bytes rarely pay for the CPU.
+// Compressed sizes are printed once per trial.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ResponseCompressionBenchmark {
+
+    @Param({"1", "20", "200", "2000"})
+    public int users;
+
+    private byte[] json;
+
+    @Setup
+    public void setUp() throws IOException {
+        List<User> page = new ArrayList<>();
+        for (int i = 0; i < users; i++) {
+            page.add(new User("User Number " + i, "user" + i + "@example.com"));
+        }
+        json = new ObjectMapper().writeValueAsBytes(page);
+        System.out.printf("%n%d users: %d bytes json, %d bytes gzip%n", users, json.length, gzip().length);
+    }
+
+    @Benchmark
+    public byte[] gzip() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(json.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(json);
+        }
+        return out.toByteArray();
+    }
+}
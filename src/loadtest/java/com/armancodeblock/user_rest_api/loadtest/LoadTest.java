@@ -0,0 +1,191 @@
+package com.armancodeblock.user_rest_api.loadtest;
+
+import com.armancodeblock.user_rest_api.UserRestApiApplication;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// End-to-end load test of the user API, see the "loadtest" profile in pom.xml.
+//
+//   -Dloadtest.target=http://host:8080  test a running server; without it the app is started in-process
+//   -Dloadtest.profile=test             profile of the in-process app ("test" = embedded H2,
+//                                       empty = application.properties, i.e. the local Postgres)
+//   -Dloadtest.users=1000               users seeded before the run
+//   -Dloadtest.rate=200                 requests per second, fixed schedule
+//   -Dloadtest.duration=30s             measured run time (a 10s warm-up at the same rate runs first)
+//
+// Prints p50/p99/p99.9/max and throughput per endpoint and writes HdrHistogram percentile
+// distributions (.hgrm) to target/loadtest.
+public class LoadTest {
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    public static void main(String[] args) throws Exception {
+        String target = System.getProperty("loadtest.target", "");
+        String profile = System.getProperty("loadtest.profile", "test");
+        int users = Integer.getInteger("loadtest.users", 1000);
+        int rate = Integer.getInteger("loadtest.rate", 200);
+        Duration duration = Duration.parse("PT" + System.getProperty("loadtest.duration", "30s"));
+
+        ConfigurableApplicationContext app = null;
+        if (target.isBlank()) {
+            app = startApp(profile);
+            target = "http://localhost:" + ((WebServerApplicationContext) app).getWebServer().getPort();
+        }
+        try {
+            HttpClient client = HttpClient.newBuilder()
+                    .executor(Executors.newFixedThreadPool(32))
+                    .connectTimeout(Duration.ofSeconds(5))
+                    .build();
+            String baseUrl = target;
+            String token = login(client, baseUrl);
+            List<Long> ids = seed(client, baseUrl, token, users);
+            System.out.printf("Seeded %d users against %s%n", ids.size(), baseUrl);
+
+            List<OpenLoopDriver.Scenario> scenarios = scenarios(baseUrl, token, ids);
+            System.out.println("Warming up for 10s...");
+            new OpenLoopDriver(client, scenarios, rate * 10).run(rate, TimeUnit.SECONDS.toNanos(10));
+
+            System.out.printf("Running %d req/s for %ds...%n", rate, duration.toSeconds());
+            OpenLoopDriver driver = new OpenLoopDriver(client, scenarios, rate * 10);
+            driver.run(rate, duration.toNanos());
+            report(driver, duration);
+        } finally {
+            if (app != null) {
+                app.close();
+            }
+        }
+        System.exit(0);
+    }
+
+    private static ConfigurableApplicationContext startApp(String profile) {
+        SpringApplication application = new SpringApplication(UserRestApiApplication.class);
+        List<String> args = new ArrayList<>(List.of(
+                "--server.port=0",
+                "--spring.jpa.show-sql=false",
+                "--logging.level.root=WARN",
+                // every request comes from one IP, the per-IP limits would only measure the limiter
+                "--users.rate-limit.enabled=false"));
+        if (!profile.isBlank()) {
+            args.add("--spring.profiles.active=" + profile);
+        }
+        if ("test".equals(profile)) {
+            args.add("--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect");
+        }
+        return application.run(args.toArray(String[]::new));
+    }
+
+    private static List<OpenLoopDriver.Scenario> scenarios(String baseUrl, String token, List<Long> ids) {
+        return List.of(
+                new OpenLoopDriver.Scenario("POST /api/v1/login", 2, () -> loginRequest(baseUrl)),
+                new OpenLoopDriver.Scenario("POST /api/v1/users", 8, () -> createRequest(baseUrl, token)),
+                new OpenLoopDriver.Scenario("GET /api/v1/users/{userId}", 50, () ->
+                        get(baseUrl + "/api/v1/users/" + ids.get(ThreadLocalRandom.current().nextInt(ids.size())))),
+                new OpenLoopDriver.Scenario("GET /api/v1/users/search", 15, () ->
+                        get(baseUrl + "/api/v1/users/search?prefix=Load%20User%20" + ThreadLocalRandom.current().nextInt(100))),
+                new OpenLoopDriver.Scenario("GET /api/v1/users", 25, () ->
+                        get(baseUrl + "/api/v1/users?size=20&page=" + ThreadLocalRandom.current().nextInt(Math.max(1, ids.size() / 20)))));
+    }
+
+    private static HttpRequest get(String url) {
+        return HttpRequest.newBuilder(URI.create(url)).timeout(Duration.ofSeconds(30)).GET().build();
+    }
+
+    private static HttpRequest loginRequest(String baseUrl) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + "/api/v1/login"))
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("{\"username\":\"admin\",\"password\":\"adminPass\"}"))
+                .build();
+    }
+
+    private static HttpRequest createRequest(String baseUrl, String token) {
+        int n = ThreadLocalRandom.current().nextInt(1_000_000);
+        return HttpRequest.newBuilder(URI.create(baseUrl + "/api/v1/users"))
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/json")
+                .header("Authorization", "Bearer " + token)
+                .POST(HttpRequest.BodyPublishers.ofString(
+                        "{\"name\":\"Load User " + n + "\",\"email\":\"load" + n + "@example.com\"}"))
+                .build();
+    }
+
+    private static String login(HttpClient client, String baseUrl) throws Exception {
+        HttpResponse<Void> response = client.send(loginRequest(baseUrl), HttpResponse.BodyHandlers.discarding());
+        String header = response.headers().firstValue("Authorization")
+                .orElseThrow(() -> new IllegalStateException("Login failed with status " + response.statusCode()));
+        return header.substring("Bearer".length()).trim();
+    }
+
+    private static List<Long> seed(HttpClient client, String baseUrl, String token, int users) throws Exception {
+        Semaphore inflight = new Semaphore(16);
+        List<CompletableFuture<Long>> created = new ArrayList<>();
+        for (int i = 0; i < users; i++) {
+            inflight.acquire();
+            created.add(client.sendAsync(createRequest(baseUrl, token), HttpResponse.BodyHandlers.ofString())
+                    .thenApply(response -> {
+                        try {
+                            return JSON.readTree(response.body()).path("userId").asLong();
+                        } catch (IOException e) {
+                            throw new IllegalStateException("Unexpected seed response: " + response.body(), e);
+                        }
+                    })
+                    .whenComplete((id, error) -> inflight.release()));
+        }
+        List<Long> ids = new ArrayList<>();
+        for (CompletableFuture<Long> future : created) {
+            ids.add(future.get());
+        }
+        return ids;
+    }
+
+    private static void report(OpenLoopDriver driver, Duration duration) throws IOException {
+        Path out = Path.of("target", "loadtest");
+        Files.createDirectories(out);
+        System.out.printf("%n%-30s %9s %8s %9s %9s %9s %9s %9s%n",
+                "endpoint", "requests", "errors", "req/s", "p50 ms", "p99 ms", "p99.9 ms", "max ms");
+        for (Map.Entry<String, OpenLoopDriver.Stats> entry : driver.stats().entrySet()) {
+            Histogram h = entry.getValue().latency;
+            System.out.printf("%-30s %9d %8d %9.1f %9.2f %9.2f %9.2f %9.2f%n",
+                    entry.getKey(), h.getTotalCount(), entry.getValue().errors.get(),
+                    h.getTotalCount() / (double) duration.toSeconds(),
+                    ms(h.getValueAtPercentile(50)), ms(h.getValueAtPercentile(99)),
+                    ms(h.getValueAtPercentile(99.9)), ms(h.getMaxValue()));
+            if (entry.getValue().errors.get() > 0) {
+                System.out.printf("%-30s statuses %s%n", "", entry.getValue().statuses);
+            }
+            String file = entry.getKey().replaceAll("[^A-Za-z0-9]+", "_") + ".hgrm";
+            try (PrintStream hgrm = new PrintStream(new FileOutputStream(out.resolve(file).toFile()))) {
+                h.outputPercentileDistribution(hgrm, 1_000_000.0);
+            }
+        }
+        if (driver.dropped() > 0) {
+            System.out.printf("%nClient saturated: %d requests could not be sent on schedule%n", driver.dropped());
+        }
+    }
+
+    private static double ms(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
@@ -0,0 +1,105 @@
+package com.armancodeblock.user_rest_api.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+// Fires requests on a fixed schedule (open loop) no matter how fast the server answers.
+// Latency is measured from the time a request was *supposed* to start, not from when it was sent,
+// so a stalled server shows up in the percentiles instead of silently lowering the request rate
+// (coordinated omission).
+class OpenLoopDriver {
+
+    record Scenario(String name, int weight, Supplier<HttpRequest> request) {
+    }
+
+    static final class Stats {
+        final Histogram latency = new ConcurrentHistogram(TimeUnit.MINUTES.toNanos(1), 3);
+        final AtomicLong errors = new AtomicLong();
+        final Map<Integer, AtomicLong> statuses = new ConcurrentHashMap<>();
+    }
+
+    private final HttpClient client;
+    private final List<Scenario> scenarios;
+    private final int totalWeight;
+    private final int maxOutstanding;
+    private final Map<String, Stats> stats = new LinkedHashMap<>();
+    private final AtomicInteger outstanding = new AtomicInteger();
+    private final AtomicLong dropped = new AtomicLong();
+
+    OpenLoopDriver(HttpClient client, List<Scenario> scenarios, int maxOutstanding) {
+        this.client = client;
+        this.scenarios = scenarios;
+        this.totalWeight = scenarios.stream().mapToInt(Scenario::weight).sum();
+        this.maxOutstanding = maxOutstanding;
+        scenarios.forEach(s -> stats.put(s.name(), new Stats()));
+    }
+
+    Map<String, Stats> stats() {
+        return stats;
+    }
+
+    long dropped() {
+        return dropped.get();
+    }
+
+    void run(int ratePerSecond, long durationNanos) throws InterruptedException {
+        long interval = TimeUnit.SECONDS.toNanos(1) / ratePerSecond;
+        long start = System.nanoTime();
+        long total = durationNanos / interval;
+        for (long i = 0; i < total; i++) {
+            long intended = start + i * interval;
+            long wait = intended - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            Scenario scenario = pick();
+            Stats s = stats.get(scenario.name());
+            if (outstanding.incrementAndGet() > maxOutstanding) {
+                // the client itself is saturated; count it, never skip it silently
+                outstanding.decrementAndGet();
+                dropped.incrementAndGet();
+                s.errors.incrementAndGet();
+                continue;
+            }
+            client.sendAsync(scenario.request().get(), HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, error) -> {
+                        s.latency.recordValue(Math.max(0, System.nanoTime() - intended));
+                        if (error != null || response.statusCode() >= 400) {
+                            s.errors.incrementAndGet();
+                        }
+                        int status = error != null ? -1 : response.statusCode();
+                        s.statuses.computeIfAbsent(status, k -> new AtomicLong()).incrementAndGet();
+                        outstanding.decrementAndGet();
+                    });
+        }
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (outstanding.get() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+
+    private Scenario pick() {
+        int roll = ThreadLocalRandom.current().nextInt(totalWeight);
+        for (Scenario scenario : scenarios) {
+            roll -= scenario.weight();
+            if (roll < 0) {
+                return scenario;
+            }
+        }
+        return scenarios.get(scenarios.size() - 1);
+    }
+}
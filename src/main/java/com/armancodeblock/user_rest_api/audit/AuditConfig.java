@@ -0,0 +1,27 @@
+package com.armancodeblock.user_rest_api.audit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+
+// users.audit.sink picks the sink: jdbc (user_audit table, default) or file (JSON lines at users.audit.file)
+@Configuration
+public class AuditConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "users.audit.sink", havingValue = "jdbc", matchIfMissing = true)
+    public AuditSink jdbcAuditSink(JdbcTemplate jdbcTemplate) {
+        return new JdbcAuditSink(jdbcTemplate);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "users.audit.sink", havingValue = "file")
+    public AuditSink fileAuditSink(AuditProperties properties, ObjectMapper objectMapper) throws IOException {
+        return new FileAuditSink(properties.file(), objectMapper,
+                properties.durability() == AuditProperties.Durability.SYNC);
+    }
+}
@@ -0,0 +1,9 @@
+package com.armancodeblock.user_rest_api.audit;
+
+import java.time.Instant;
+
+// One user mutation: who did what to which user, with the values after the change (null for deletes).
+public record AuditEvent(Instant occurredAt, String principal, Action action, Long userId, String name, String email) {
+
+    public enum Action { CREATE, UPDATE, DELETE }
+}
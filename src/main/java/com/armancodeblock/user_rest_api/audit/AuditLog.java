@@ -0,0 +1,245 @@
+package com.armancodeblock.user_rest_api.audit;
+
+import com.armancodeblock.user_rest_api.enity.User;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+// Write-behind audit trail for user mutations. record() puts the event on a bounded queue (after commit when
+// called inside a transaction) and a single writer thread drains it in batches into the AuditSink, so the
+// request pays for a queue insert instead of an extra database write. See AuditProperties.Durability for what
+// callers wait for. A failing sink is retried with backoff, the batch is kept until it goes through.
+// Callers that commit many mutations in one go wrap them in batched(), so SYNC waits once for all of their events
+// instead of once per event (see GroupCommitWriter).
+// Metrics: users.audit.queue.depth, users.audit.lag (age of the oldest unwritten event), users.audit.events{result}.
+@Component
+public class AuditLog {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuditLog.class);
+
+    private record Pending(AuditEvent event, long enqueuedNanos, CompletableFuture<Void> written) {}
+
+    private final AuditSink sink;
+    private final AuditProperties.Durability durability;
+    private final boolean enabled;
+    private final int batchSize;
+    private final long blockTimeoutNanos;
+    private final BlockingQueue<Pending> queue;
+    private final Thread writer;
+    private volatile boolean running = true;
+    private final Counter written;
+    private final Counter dropped;
+    private final Counter failed;
+    private final Timer batchTimer;
+    // SYNC events queued inside batched() on this thread, waited for when it returns
+    private final ThreadLocal<List<Pending>> deferred = new ThreadLocal<>();
+
+    public AuditLog(AuditSink sink, AuditProperties properties, MeterRegistry meterRegistry) {
+        this.sink = sink;
+        this.durability = properties.durability();
+        this.enabled = properties.enabled();
+        this.batchSize = properties.batchSize();
+        this.blockTimeoutNanos = properties.blockTimeout().toNanos();
+        this.queue = new ArrayBlockingQueue<>(properties.queueCapacity());
+        this.written = events(meterRegistry, "written");
+        this.dropped = events(meterRegistry, "dropped");
+        this.failed = events(meterRegistry, "write_failed");
+        this.batchTimer = Timer.builder("users.audit.batch")
+                .description("Time to persist one audit batch")
+                .register(meterRegistry);
+        Gauge.builder("users.audit.queue.depth", queue, BlockingQueue::size)
+                .description("Audit events waiting to be written")
+                .register(meterRegistry);
+        Gauge.builder("users.audit.lag", this, AuditLog::lagSeconds)
+                .description("Age in seconds of the oldest audit event not yet written")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        this.writer = new Thread(this::drain, "audit-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    private static Counter events(MeterRegistry registry, String result) {
+        return Counter.builder("users.audit.events")
+                .description("Audit events by outcome")
+                .tag("result", result)
+                .register(registry);
+    }
+
+    public void record(AuditEvent.Action action, Long userId, User user) {
+        if (!enabled) {
+            return;
+        }
+        AuditEvent event = new AuditEvent(Instant.now(), principal(), action, userId,
+                user == null ? null : user.getName(), user == null ? null : user.getEmail());
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    enqueue(event);
+                }
+            });
+        } else {
+            enqueue(event);
+        }
+    }
+
+    private void enqueue(AuditEvent event) {
+        CompletableFuture<Void> done = durability == AuditProperties.Durability.SYNC ? new CompletableFuture<>() : null;
+        Pending pending = new Pending(event, System.nanoTime(), done);
+        boolean queued;
+        try {
+            queued = durability == AuditProperties.Durability.ASYNC
+                    ? queue.offer(pending)
+                    : queue.offer(pending, blockTimeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            queued = false;
+        }
+        if (!queued) {
+            dropped.increment();
+            logger.warn("Audit queue full, dropped {} of user {}", event.action(), event.userId());
+            return;
+        }
+        if (done != null) {
+            List<Pending> batch = deferred.get();
+            if (batch != null) {
+                batch.add(pending);
+            } else {
+                await(List.of(pending));
+            }
+        }
+    }
+
+    // runs work, then waits (SYNC) for the events it recorded on this thread as a whole, within one blockTimeout
+    public void batched(Runnable work) {
+        if (durability != AuditProperties.Durability.SYNC || deferred.get() != null) {
+            work.run();
+            return;
+        }
+        List<Pending> batch = new ArrayList<>();
+        deferred.set(batch);
+        try {
+            work.run();
+        } finally {
+            deferred.remove();
+            await(batch);
+        }
+    }
+
+    private void await(List<Pending> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        long deadline = System.nanoTime() + blockTimeoutNanos;
+        for (Pending pending : batch) {
+            AuditEvent event = pending.event();
+            try {
+                pending.written().get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                logger.warn("Audit write of user {} not confirmed within {} ms, still queued", event.userId(),
+                        TimeUnit.NANOSECONDS.toMillis(blockTimeoutNanos));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                logger.warn("Audit write of user {} failed: {}", event.userId(), e.toString());
+            }
+        }
+    }
+
+    private void drain() {
+        List<Pending> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                Pending first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                writeWithRetry(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void writeWithRetry(List<Pending> batch) throws InterruptedException {
+        List<AuditEvent> events = new ArrayList<>(batch.size());
+        for (Pending pending : batch) {
+            events.add(pending.event());
+        }
+        long backoffMillis = 50;
+        while (true) {
+            long start = System.nanoTime();
+            try {
+                sink.write(events);
+                batchTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                written.increment(events.size());
+                for (Pending pending : batch) {
+                    if (pending.written() != null) {
+                        pending.written().complete(null);
+                    }
+                }
+                return;
+            } catch (Exception e) {
+                failed.increment(events.size());
+                if (!running) {
+                    logger.error("Audit sink failed during shutdown, {} events lost", events.size(), e);
+                    for (Pending pending : batch) {
+                        if (pending.written() != null) {
+                            pending.written().completeExceptionally(e);
+                        }
+                    }
+                    return;
+                }
+                logger.warn("Audit sink failed for {} events, retrying in {} ms: {}", events.size(), backoffMillis, e.toString());
+                Thread.sleep(backoffMillis);
+                backoffMillis = Math.min(backoffMillis * 2, 5_000);
+            }
+        }
+    }
+
+    double lagSeconds() {
+        Pending oldest = queue.peek();
+        return oldest == null ? 0 : (System.nanoTime() - oldest.enqueuedNanos()) / 1e9;
+    }
+
+    // writes what is still queued before the sink (and its database) goes away
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        writer.join(TimeUnit.SECONDS.toMillis(10));
+    }
+
+    private static String principal() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth == null || !auth.isAuthenticated() || auth instanceof AnonymousAuthenticationToken) {
+            return null;
+        }
+        return auth.getName();
+    }
+}
@@ -0,0 +1,31 @@
+package com.armancodeblock.user_rest_api.audit;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+// users.audit.* in application.properties
+@ConfigurationProperties(prefix = "users.audit")
+public record AuditProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("JDBC") Sink sink,
+        @DefaultValue("logs/user-audit.jsonl") Path file,
+        @DefaultValue("ASYNC") Durability durability,
+        @DefaultValue("10000") int queueCapacity,
+        @DefaultValue("500") int batchSize,
+        // how long BLOCKING/SYNC callers wait for queue space (and SYNC for the write) before giving up
+        @DefaultValue("1s") Duration blockTimeout) {
+
+    public enum Sink { JDBC, FILE }
+
+    public enum Durability {
+        // never slows the request: the event is dropped (and counted) if the queue is full
+        ASYNC,
+        // waits for queue space, so nothing is dropped unless the writer is stuck for blockTimeout
+        BLOCKING,
+        // waits until the event's batch is persisted; batches are shared, so this is a group commit
+        SYNC
+    }
+}
@@ -0,0 +1,10 @@
+package com.armancodeblock.user_rest_api.audit;
+
+import java.util.List;
+
+// Where AuditLog's writer thread puts each batch. A batch is persisted as a whole or the call throws,
+// in which case the same batch is retried.
+public interface AuditSink {
+
+    void write(List<AuditEvent> batch) throws Exception;
+}
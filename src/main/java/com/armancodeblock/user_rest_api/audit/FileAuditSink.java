@@ -0,0 +1,51 @@
+package com.armancodeblock.user_rest_api.audit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+// Local stand-in for the audit table: one JSON document per line, appended with a single write per batch.
+// With fsync the batch is forced to disk before write() returns (durability SYNC).
+public class FileAuditSink implements AuditSink, AutoCloseable {
+
+    private final FileChannel channel;
+    private final ObjectMapper objectMapper;
+    private final boolean fsync;
+
+    public FileAuditSink(Path file, ObjectMapper objectMapper, boolean fsync) throws IOException {
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        this.objectMapper = objectMapper;
+        this.fsync = fsync;
+    }
+
+    @Override
+    public void write(List<AuditEvent> batch) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(batch.size() * 160);
+        for (AuditEvent event : batch) {
+            objectMapper.writeValue(out, event);
+            out.write('\n');
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(out.toByteArray());
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        if (fsync) {
+            channel.force(false);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
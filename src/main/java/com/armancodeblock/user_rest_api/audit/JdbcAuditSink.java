@@ -0,0 +1,31 @@
+package com.armancodeblock.user_rest_api.audit;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+// Appends to the user_audit table (db/migration V1) with one JDBC batch insert per batch.
+public class JdbcAuditSink implements AuditSink {
+
+    private static final String INSERT = "INSERT INTO user_audit (occurred_at, principal, action, user_id, name, email) "
+            + "VALUES (?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public JdbcAuditSink(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void write(List<AuditEvent> batch) {
+        jdbcTemplate.batchUpdate(INSERT, batch, batch.size(), (ps, event) -> {
+            ps.setTimestamp(1, Timestamp.from(event.occurredAt()));
+            ps.setString(2, event.principal());
+            ps.setString(3, event.action().name());
+            ps.setObject(4, event.userId());
+            ps.setString(5, event.name());
+            ps.setString(6, event.email());
+        });
+    }
+}
@@ -0,0 +1,35 @@
+package com.armancodeblock.user_rest_api.cache;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// users.cache.shared-store picks the L2:
+//   none       no L2, L1 and then the database (default)
+//   in-memory  a bounded process-local stand-in, for tests and single-node runs
+//   external   the application defines the SharedCache and CacheInvalidationBus beans (Redis, ...)
+// With none and in-memory the invalidation bus is in-process too, so every replica only sees its own writes.
+@Configuration
+public class CacheConfig {
+
+    private static final String SHARED_STORE = "users.cache.shared-store";
+
+    @Bean
+    @ConditionalOnProperty(name = SHARED_STORE, havingValue = "none", matchIfMissing = true)
+    public SharedCache noSharedCache() {
+        return new NoSharedCache();
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = SHARED_STORE, havingValue = "in-memory")
+    public SharedCache inMemorySharedCache(UserCacheProperties properties) {
+        return new InMemorySharedCache(properties.l1MaxSize());
+    }
+
+    @Bean
+    @ConditionalOnExpression("'${" + SHARED_STORE + ":none}' != 'external'")
+    public CacheInvalidationBus cacheInvalidationBus() {
+        return new InMemoryCacheInvalidationBus();
+    }
+}
@@ -0,0 +1,12 @@
+package com.armancodeblock.user_rest_api.cache;
+
+import java.util.function.LongConsumer;
+
+// Fan-out of "user X changed" to every replica so each drops its L1 copy (Redis pub/sub, a Kafka topic, ...).
+// Delivery is best effort: the L1 TTL bounds how long a replica can serve a value after a lost message.
+public interface CacheInvalidationBus {
+
+    void publish(long userId);
+
+    void subscribe(LongConsumer listener);
+}
@@ -0,0 +1,23 @@
+package com.armancodeblock.user_rest_api.cache;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.LongConsumer;
+
+// Stand-in bus that delivers to listeners in this JVM only, synchronously on the publishing thread.
+public class InMemoryCacheInvalidationBus implements CacheInvalidationBus {
+
+    private final List<LongConsumer> listeners = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void publish(long userId) {
+        for (LongConsumer listener : listeners) {
+            listener.accept(userId);
+        }
+    }
+
+    @Override
+    public void subscribe(LongConsumer listener) {
+        listeners.add(listener);
+    }
+}
@@ -0,0 +1,63 @@
+package com.armancodeblock.user_rest_api.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
+import java.time.Duration;
+
+// Stand-in for the shared store in tests and single-node runs (users.cache.shared-store=in-memory): same contract,
+// process-local. Bounded like L1 and expired by Caffeine, each entry after its own ttl.
+public class InMemorySharedCache implements SharedCache {
+
+    private record Entry(byte[] value, long ttlNanos) {}
+
+    private final Cache<String, Entry> entries;
+
+    public InMemorySharedCache() {
+        this(10_000);
+    }
+
+    public InMemorySharedCache(long maxSize) {
+        this.entries = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new Expiry<String, Entry>() {
+                    @Override
+                    public long expireAfterCreate(String key, Entry entry, long currentTime) {
+                        return entry.ttlNanos();
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, Entry entry, long currentTime, long currentDuration) {
+                        return entry.ttlNanos();
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, Entry entry, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+    }
+
+    @Override
+    public byte[] get(String key) {
+        Entry entry = entries.getIfPresent(key);
+        return entry == null ? null : entry.value();
+    }
+
+    @Override
+    public void put(String key, byte[] value, Duration ttl) {
+        entries.put(key, new Entry(value, ttl.toNanos()));
+    }
+
+    @Override
+    public void evict(String key) {
+        entries.invalidate(key);
+    }
+
+    public int size() {
+        entries.cleanUp();
+        return (int) entries.estimatedSize();
+    }
+}
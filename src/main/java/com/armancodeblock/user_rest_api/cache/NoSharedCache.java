@@ -0,0 +1,21 @@
+package com.armancodeblock.user_rest_api.cache;
+
+import java.time.Duration;
+
+// No L2 (users.cache.shared-store=none, the default): UserCache goes from L1 straight to the database and
+// skips the encoding for this tier.
+public class NoSharedCache implements SharedCache {
+
+    @Override
+    public byte[] get(String key) {
+        return null;
+    }
+
+    @Override
+    public void put(String key, byte[] value, Duration ttl) {
+    }
+
+    @Override
+    public void evict(String key) {
+    }
+}
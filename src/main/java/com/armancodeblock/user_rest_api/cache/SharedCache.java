@@ -0,0 +1,31 @@
+package com.armancodeblock.user_rest_api.cache;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+// The shared L2 tier, one store for all replicas (Redis, Memcached, ...). Values are opaque bytes so any
+// key/value store fits; UserCache does the encoding. Implementations should treat failures as misses
+// rather than throw, the database is always there as the fallback.
+public interface SharedCache {
+
+    // null on a miss
+    byte[] get(String key);
+
+    // hits only; override with the store's multi-get (Redis MGET, ...) to make it one round trip
+    default Map<String, byte[]> getAll(Collection<String> keys) {
+        Map<String, byte[]> hits = new HashMap<>();
+        for (String key : keys) {
+            byte[] value = get(key);
+            if (value != null) {
+                hits.put(key, value);
+            }
+        }
+        return hits;
+    }
+
+    void put(String key, byte[] value, Duration ttl);
+
+    void evict(String key);
+}
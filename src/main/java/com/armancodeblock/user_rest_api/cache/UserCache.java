@@ -0,0 +1,267 @@
+package com.armancodeblock.user_rest_api.cache;
+
+import com.armancodeblock.user_rest_api.concurrency.SingleFlight;
+import com.armancodeblock.user_rest_api.enity.User;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+// Read-through cache for users by id: L1 is a bounded Caffeine map per replica, L2 the SharedCache all replicas
+// read, the database comes last. Only one load per id runs at a time on a replica (SingleFlight), so a hot key
+// expiring sends one query to L2/the database, not one per waiting request.
+// Writes call invalidate(), which drops both tiers and tells the other replicas to drop their L1 copy.
+// Misses are not cached.
+@Component
+public class UserCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserCache.class);
+    // bump the version when the cached JSON shape changes, old entries then just miss
+    private static final String KEY_PREFIX = "users:v1:";
+
+    private final boolean enabled;
+    private final Cache<Long, User> l1;
+    // ids written within the invalidation window are not cached: a load may have read the old row before the
+    // write, or from a replica that hasn't replayed it yet. Not size-bounded, a marker evicted early under a write
+    // burst would let a stale read back in; it holds at most the ids written in one window
+    private final Cache<Long, Boolean> recentlyInvalidated;
+    // null without an L2 (NoSharedCache), nothing is encoded or counted for that tier then
+    private final SharedCache l2;
+    private final Duration l2Ttl;
+    private final CacheInvalidationBus bus;
+    private final SingleFlight singleFlight;
+    private final ObjectMapper objectMapper;
+    private final Counter l1Hits;
+    private final Counter l1Misses;
+    private final Counter l2Hits;
+    private final Counter l2Misses;
+
+    public UserCache(UserCacheProperties properties, SharedCache l2, CacheInvalidationBus bus, SingleFlight singleFlight,
+                     ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.enabled = properties.enabled();
+        this.l1 = Caffeine.newBuilder()
+                .maximumSize(properties.l1MaxSize())
+                .expireAfterWrite(properties.l1Ttl())
+                .build();
+        this.recentlyInvalidated = Caffeine.newBuilder()
+                .expireAfterWrite(properties.invalidationWindow())
+                .build();
+        this.l2 = l2 instanceof NoSharedCache ? null : l2;
+        this.l2Ttl = properties.l2Ttl();
+        this.bus = bus;
+        this.singleFlight = singleFlight;
+        this.objectMapper = objectMapper;
+        this.l1Hits = requests(meterRegistry, "l1", "hit");
+        this.l1Misses = requests(meterRegistry, "l1", "miss");
+        this.l2Hits = requests(meterRegistry, "l2", "hit");
+        this.l2Misses = requests(meterRegistry, "l2", "miss");
+        Gauge.builder("users.cache.l1.size", l1, Cache::estimatedSize)
+                .description("Users held in this replica's L1 cache")
+                .register(meterRegistry);
+        bus.subscribe(this::dropLocal);
+    }
+
+    private static Counter requests(MeterRegistry registry, String tier, String result) {
+        return Counter.builder("users.cache.requests")
+                .description("User cache lookups by tier and result")
+                .tag("tier", tier)
+                .tag("result", result)
+                .register(registry);
+    }
+
+    // loader hits the database and is only called on an L1 and L2 miss
+    public Optional<User> get(Long userId, Supplier<Optional<User>> loader) {
+        if (!enabled) {
+            return loader.get();
+        }
+        User cached = l1.getIfPresent(userId);
+        if (cached != null) {
+            l1Hits.increment();
+            return Optional.of(cached);
+        }
+        l1Misses.increment();
+        return singleFlight.execute(new UserLoad(userId), () -> load(userId, loader));
+    }
+
+    // batch version of get: one L1 lookup, one L2 multi-get and one loader call for whatever is still missing.
+    // Returns the users found, absent ids are misses.
+    public Map<Long, User> getAll(Collection<Long> userIds, Function<Collection<Long>, Map<Long, User>> loader) {
+        if (!enabled) {
+            return loader.apply(userIds);
+        }
+        Map<Long, User> found = new HashMap<>(l1.getAllPresent(userIds));
+        l1Hits.increment(found.size());
+        List<Long> missing = new ArrayList<>(userIds.size() - found.size());
+        for (Long userId : userIds) {
+            if (!found.containsKey(userId)) {
+                missing.add(userId);
+            }
+        }
+        l1Misses.increment(missing.size());
+        if (missing.isEmpty()) {
+            return found;
+        }
+        List<Long> notShared = missing;
+        if (l2 != null) {
+            notShared = readL2(missing, found);
+            l2Hits.increment(missing.size() - notShared.size());
+            l2Misses.increment(notShared.size());
+        }
+        if (notShared.isEmpty()) {
+            return found;
+        }
+        Map<Long, User> loaded = loader.apply(notShared);
+        for (Map.Entry<Long, User> entry : loaded.entrySet()) {
+            if (cacheable(entry.getKey())) {
+                writeL2(entry.getKey(), entry.getValue());
+                l1.put(entry.getKey(), entry.getValue());
+            }
+        }
+        found.putAll(loaded);
+        return found;
+    }
+
+    // called inside the write's transaction, takes effect after commit: dropping the entries before would let a
+    // concurrent load cache the row as it was before the write
+    public void invalidate(Long userId) {
+        if (!enabled || userId == null) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidateNow(userId);
+                }
+            });
+        } else {
+            invalidateNow(userId);
+        }
+    }
+
+    private void invalidateNow(Long userId) {
+        dropLocal(userId);
+        if (l2 != null) {
+            try {
+                l2.evict(key(userId));
+            } catch (RuntimeException e) {
+                logger.warn("L2 evict failed for user {}: {}", userId, e.toString());
+            }
+        }
+        bus.publish(userId);
+    }
+
+    private void dropLocal(long userId) {
+        recentlyInvalidated.put(userId, Boolean.TRUE);
+        l1.invalidate(userId);
+    }
+
+    private Optional<User> load(Long userId, Supplier<Optional<User>> loader) {
+        if (l2 != null) {
+            User shared = readL2(userId);
+            if (shared != null) {
+                l2Hits.increment();
+                if (cacheable(userId)) {
+                    l1.put(userId, shared);
+                }
+                return Optional.of(shared);
+            }
+            l2Misses.increment();
+        }
+        Optional<User> loaded = loader.get();
+        if (loaded.isPresent() && cacheable(userId)) {
+            writeL2(userId, loaded.get());
+            l1.put(userId, loaded.get());
+        }
+        return loaded;
+    }
+
+    private boolean cacheable(Long userId) {
+        return recentlyInvalidated.getIfPresent(userId) == null;
+    }
+
+    private User readL2(Long userId) {
+        try {
+            return decode(userId, l2.get(key(userId)));
+        } catch (RuntimeException e) {
+            logger.warn("L2 read failed for user {}: {}", userId, e.toString());
+            return null;
+        }
+    }
+
+    // adds the L2 hits to found (and to L1), returns the ids L2 didn't have
+    private List<Long> readL2(List<Long> userIds, Map<Long, User> found) {
+        Map<String, byte[]> shared;
+        try {
+            List<String> keys = new ArrayList<>(userIds.size());
+            for (Long userId : userIds) {
+                keys.add(key(userId));
+            }
+            shared = l2.getAll(keys);
+        } catch (RuntimeException e) {
+            logger.warn("L2 multi-get failed for {} users: {}", userIds.size(), e.toString());
+            return userIds;
+        }
+        List<Long> notShared = new ArrayList<>();
+        for (Long userId : userIds) {
+            User user = decode(userId, shared.get(key(userId)));
+            if (user == null) {
+                notShared.add(userId);
+                continue;
+            }
+            found.put(userId, user);
+            if (cacheable(userId)) {
+                l1.put(userId, user);
+            }
+        }
+        return notShared;
+    }
+
+    private User decode(Long userId, byte[] bytes) {
+        if (bytes == null) {
+            return null;
+        }
+        try {
+            return objectMapper.readValue(bytes, User.class);
+        } catch (IOException e) {
+            logger.warn("L2 entry for user {} unreadable: {}", userId, e.toString());
+            return null;
+        }
+    }
+
+    private void writeL2(Long userId, User user) {
+        if (l2 == null) {
+            return;
+        }
+        try {
+            l2.put(key(userId), objectMapper.writeValueAsBytes(user), l2Ttl);
+        } catch (IOException | RuntimeException e) {
+            logger.warn("L2 write failed for user {}: {}", userId, e.toString());
+        }
+    }
+
+    private static String key(Long userId) {
+        return KEY_PREFIX + userId;
+    }
+
+    // single-flight key
+    private record UserLoad(Long userId) {}
+}
@@ -0,0 +1,20 @@
+package com.armancodeblock.user_rest_api.cache;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+// users.cache.* in application.properties
+@ConfigurationProperties(prefix = "users.cache")
+public record UserCacheProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("10000") long l1MaxSize,
+        // upper bound on staleness if an invalidation message is lost
+        @DefaultValue("30s") Duration l1Ttl,
+        @DefaultValue("5m") Duration l2Ttl,
+        // how long a written id is not filled from reads (here and in the read model): a load may have read the
+        // old row before the write, or from a replica that hasn't replayed it. Keep it above the replica lag
+        // (users.datasource.read-your-writes-window)
+        @DefaultValue("10s") Duration invalidationWindow) {
+}
@@ -0,0 +1,304 @@
+package com.armancodeblock.user_rest_api.changefeed;
+
+import com.armancodeblock.user_rest_api.enity.User;
+import com.armancodeblock.user_rest_api.enity.UserChange;
+import com.armancodeblock.user_rest_api.repository.UserChangeRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Incremental user changes by cursor, backed by the user_changes journal that UserService writes in the same
+// transaction as each mutation.
+//
+// Consumers are pull-based: nothing is buffered per consumer, every delivery is a read of the journal from the
+// consumer's own cursor. A slow SSE client therefore only delays itself, and a reconnect resumes from Last-Event-ID.
+// One dispatcher thread checks the journal head every pollInterval (and right after a local commit) and
+// completes long polls / pumps SSE subscribers that are behind.
+//
+// Identity values are assigned at insert but become visible at commit, so seq 7 can show up before seq 6.
+// read() stops in front of such a gap until gapTimeout after this node first saw it (then it was a rollback), so
+// no change is skipped. The rows' own timestamps don't tell: seq 7 may have committed long after seq 6 was assigned.
+// Long polls waiting on the same cursor share one read per dispatch.
+@Component
+public class ChangeFeed {
+
+    private static final Logger logger = LoggerFactory.getLogger(ChangeFeed.class);
+
+    private final UserChangeRepository repository;
+    private final ChangeFeedProperties properties;
+    private final Set<Waiter> waiters = ConcurrentHashMap.newKeySet();
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService dispatcher;
+    private final ExecutorService senders;
+    private final AtomicBoolean dispatchQueued = new AtomicBoolean();
+    // cursor in front of a gap -> System.nanoTime() when a read first stopped there
+    private final Map<Long, Long> gapsSeen = new ConcurrentHashMap<>();
+    private final Counter eventsSent;
+    private volatile long lastPurgeNanos = System.nanoTime();
+
+    private record Waiter(long since, int limit, DeferredResult<ChangePage> result) {}
+
+    private static final class Subscriber {
+        private final SseEmitter emitter;
+        private volatile long cursor;
+        private volatile long lastSentNanos = System.nanoTime();
+        private final AtomicBoolean busy = new AtomicBoolean();
+
+        Subscriber(SseEmitter emitter, long cursor) {
+            this.emitter = emitter;
+            this.cursor = cursor;
+        }
+    }
+
+    public ChangeFeed(UserChangeRepository repository, ChangeFeedProperties properties, MeterRegistry meterRegistry) {
+        this.repository = repository;
+        this.properties = properties;
+        this.dispatcher = Executors.newSingleThreadScheduledExecutor(daemon("change-feed-dispatch"));
+        this.senders = Executors.newFixedThreadPool(properties.sseSenderThreads(), daemon("change-feed-sse"));
+        this.eventsSent = Counter.builder("users.change_feed.events_sent")
+                .description("Changes delivered to SSE subscribers")
+                .register(meterRegistry);
+        Gauge.builder("users.change_feed.consumers", waiters, Set::size)
+                .tag("type", "long_poll")
+                .register(meterRegistry);
+        Gauge.builder("users.change_feed.consumers", subscribers, Set::size)
+                .tag("type", "sse")
+                .register(meterRegistry);
+        long interval = properties.pollInterval().toMillis();
+        dispatcher.scheduleWithFixedDelay(this::dispatch, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    private static java.util.concurrent.ThreadFactory daemon(String name) {
+        AtomicInteger count = new AtomicInteger();
+        return r -> {
+            Thread thread = new Thread(r, name + "-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    // called by UserService inside the mutation's transaction
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void append(UserChange.Action action, Long userId, User user) {
+        repository.save(new UserChange(userId, action,
+                user == null ? null : user.getName(), user == null ? null : user.getEmail(), Instant.now()));
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                wakeUp();
+            }
+        });
+    }
+
+    public ChangePage read(long since, int limit) {
+        checkRetained(since);
+        int pageSize = Math.max(1, Math.min(limit, properties.maxLimit()));
+        List<UserChange> rows = repository.findBySeqGreaterThanOrderBySeqAsc(since, Limit.of(pageSize));
+        List<UserChange> visible = new ArrayList<>(rows.size());
+        long expected = since + 1;
+        for (UserChange change : rows) {
+            if (change.getSeq() != expected && !gapSettled(expected - 1)) {
+                break;
+            }
+            if (!gapsSeen.isEmpty()) {
+                gapsSeen.remove(expected - 1);
+            }
+            visible.add(change);
+            expected = change.getSeq() + 1;
+        }
+        long next = visible.isEmpty() ? since : visible.get(visible.size() - 1).getSeq();
+        return new ChangePage(visible, next);
+    }
+
+    // true once the gap after cursor is gapTimeout old, counted from the first read that stopped in front of it
+    private boolean gapSettled(long cursor) {
+        long now = System.nanoTime();
+        Long firstSeen = gapsSeen.putIfAbsent(cursor, now);
+        return firstSeen != null && now - firstSeen >= properties.gapTimeout().toNanos();
+    }
+
+    // the page right away if there is one, otherwise the first change after since, or an empty page after wait
+    public DeferredResult<ChangePage> poll(long since, int limit, long waitMillis) {
+        long timeout = Math.min(waitMillis, properties.maxWait().toMillis());
+        DeferredResult<ChangePage> result = new DeferredResult<>(timeout, () -> new ChangePage(List.of(), since));
+        ChangePage page = read(since, limit);
+        if (!page.changes().isEmpty() || timeout <= 0) {
+            result.setResult(page);
+            return result;
+        }
+        Waiter waiter = new Waiter(since, limit, result);
+        result.onCompletion(() -> waiters.remove(waiter));
+        waiters.add(waiter);
+        return result;
+    }
+
+    public SseEmitter subscribe(long since) {
+        checkRetained(since);
+        SseEmitter emitter = new SseEmitter(properties.sseTimeout().toMillis());
+        Subscriber subscriber = new Subscriber(emitter, since);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(e -> subscribers.remove(subscriber));
+        subscribers.add(subscriber);
+        wakeUp();
+        return emitter;
+    }
+
+    private void checkRetained(long since) {
+        // a hole in front of the oldest row is either still committing (young) or purged / rolled back (settled)
+        UserChange oldest = repository.findFirstByOrderBySeqAsc();
+        if (oldest != null && since < oldest.getSeq() - 1 && gapSettled(since)) {
+            gapsSeen.remove(since);
+            long head = maxSeq();
+            throw new CursorExpiredException("Cursor " + since + " is older than the retained changes (oldest "
+                    + oldest.getSeq() + "), rescan and continue from " + head, head);
+        }
+    }
+
+    private long maxSeq() {
+        Long max = repository.findMaxSeq();
+        return max == null ? 0 : max;
+    }
+
+    private void wakeUp() {
+        if (dispatchQueued.compareAndSet(false, true)) {
+            dispatcher.execute(this::dispatch);
+        }
+    }
+
+    private void dispatch() {
+        dispatchQueued.set(false);
+        try {
+            purgeIfDue();
+            if (waiters.isEmpty() && subscribers.isEmpty()) {
+                return;
+            }
+            long head = maxSeq();
+            Map<Long, List<Waiter>> byCursor = new HashMap<>();
+            for (Waiter waiter : waiters) {
+                if (waiter.since() < head) {
+                    byCursor.computeIfAbsent(waiter.since(), since -> new ArrayList<>()).add(waiter);
+                }
+            }
+            byCursor.forEach(this::complete);
+            long heartbeatNanos = properties.sseHeartbeat().toNanos();
+            for (Subscriber subscriber : subscribers) {
+                boolean behind = subscriber.cursor < head;
+                boolean idle = System.nanoTime() - subscriber.lastSentNanos > heartbeatNanos;
+                if ((behind || idle) && subscriber.busy.compareAndSet(false, true)) {
+                    senders.execute(() -> pump(subscriber, behind));
+                }
+            }
+        } catch (RuntimeException e) {
+            // e.g. a database hiccup, the next tick tries again
+            logger.warn("Change feed dispatch failed: {}", e.toString());
+        }
+    }
+
+    // one read for all long polls on the same cursor, each gets the first limit changes of it
+    private void complete(long since, List<Waiter> sameCursor) {
+        int limit = 0;
+        for (Waiter waiter : sameCursor) {
+            limit = Math.max(limit, waiter.limit());
+        }
+        ChangePage page;
+        try {
+            page = read(since, limit);
+        } catch (CursorExpiredException e) {
+            sameCursor.forEach(waiter -> waiter.result().setErrorResult(e));
+            return;
+        }
+        if (page.changes().isEmpty()) {
+            return;
+        }
+        for (Waiter waiter : sameCursor) {
+            List<UserChange> changes = page.changes();
+            if (changes.size() > waiter.limit()) {
+                changes = changes.subList(0, Math.max(1, waiter.limit()));
+            }
+            waiter.result().setResult(changes == page.changes()
+                    ? page : new ChangePage(changes, changes.get(changes.size() - 1).getSeq()));
+        }
+    }
+
+    // sends at most one page per tick, so one busy subscriber can't monopolise a sender thread
+    private void pump(Subscriber subscriber, boolean behind) {
+        try {
+            if (behind) {
+                ChangePage page = read(subscriber.cursor, properties.maxLimit());
+                for (UserChange change : page.changes()) {
+                    subscriber.emitter.send(SseEmitter.event()
+                            .id(Long.toString(change.getSeq()))
+                            .name("user-change")
+                            .data(change, MediaType.APPLICATION_JSON));
+                    subscriber.cursor = change.getSeq();
+                    eventsSent.increment();
+                }
+                if (!page.changes().isEmpty()) {
+                    subscriber.lastSentNanos = System.nanoTime();
+                    return;
+                }
+            }
+            subscriber.emitter.send(SseEmitter.event().comment("keepalive"));
+            subscriber.lastSentNanos = System.nanoTime();
+        } catch (IOException | IllegalStateException | CursorExpiredException e) {
+            // client went away (it resumes with Last-Event-ID), or it fell behind the retained changes
+            subscribers.remove(subscriber);
+            subscriber.emitter.completeWithError(e);
+        } catch (RuntimeException e) {
+            logger.warn("Change feed delivery failed: {}", e.toString());
+        } finally {
+            subscriber.busy.set(false);
+        }
+    }
+
+    private void purgeIfDue() {
+        if (System.nanoTime() - lastPurgeNanos < TimeUnit.HOURS.toNanos(1)) {
+            return;
+        }
+        lastPurgeNanos = System.nanoTime();
+        // gaps nobody has read past, a later read just starts their timeout again
+        long stale = lastPurgeNanos - properties.gapTimeout().toNanos();
+        gapsSeen.values().removeIf(firstSeen -> firstSeen - stale < 0);
+        int purged = repository.deleteChangedBefore(Instant.now().minus(properties.retention()));
+        if (purged > 0) {
+            logger.info("Purged {} change feed entries older than {}", purged, properties.retention());
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        dispatcher.shutdownNow();
+        senders.shutdownNow();
+        for (Subscriber subscriber : subscribers) {
+            subscriber.emitter.complete();
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.armancodeblock.user_rest_api.changefeed;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+// users.change-feed.* in application.properties
+@ConfigurationProperties(prefix = "users.change-feed")
+public record ChangeFeedProperties(
+        // how often waiting consumers are checked for new changes (other replicas' writes are only seen this way)
+        @DefaultValue("500ms") Duration pollInterval,
+        // a missing seq younger than this may still be committing, reads stop in front of it
+        @DefaultValue("5s") Duration gapTimeout,
+        @DefaultValue("1000") int maxLimit,
+        @DefaultValue("30s") Duration maxWait,
+        @DefaultValue("30m") Duration sseTimeout,
+        @DefaultValue("15s") Duration sseHeartbeat,
+        @DefaultValue("4") int sseSenderThreads,
+        @DefaultValue("7d") Duration retention) {
+}
@@ -0,0 +1,9 @@
+package com.armancodeblock.user_rest_api.changefeed;
+
+import com.armancodeblock.user_rest_api.enity.UserChange;
+
+import java.util.List;
+
+// next is the cursor for the following request: the last seq returned, or the request's own cursor if empty
+public record ChangePage(List<UserChange> changes, long next) {
+}
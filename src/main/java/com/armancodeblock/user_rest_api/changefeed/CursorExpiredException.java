@@ -0,0 +1,16 @@
+package com.armancodeblock.user_rest_api.changefeed;
+
+// The cursor points before the oldest retained change, the consumer has to rescan and continue from head.
+public class CursorExpiredException extends RuntimeException {
+
+    private final long head;
+
+    public CursorExpiredException(String message, long head) {
+        super(message, null, false, false);
+        this.head = head;
+    }
+
+    public long getHead() {
+        return head;
+    }
+}
@@ -0,0 +1,167 @@
+package com.armancodeblock.user_rest_api.concurrency;
+
+import com.armancodeblock.user_rest_api.exception.ServiceOverloadedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+// AIMD concurrency limit around the service/repository layer.
+// Every call that finishes under the latency threshold grows the limit by 1/limit (about +1 per "window"),
+// a slow call shrinks it by backoffRatio, at most once per threshold period so a burst of slow calls
+// does not collapse it to the minimum. Calls over the limit fail fast with ServiceOverloadedException (503)
+// instead of queueing on the connection pool.
+//
+// Completing calls only bump LongAdders, there is no lock on the request path. One updater thread drains them
+// every updateInterval and recomputes the limit, the only writer of limit.
+@Component
+public class AdaptiveConcurrencyLimiter {
+
+    private final boolean enabled;
+    private final int minLimit;
+    private final int maxLimit;
+    private final long thresholdNanos;
+    private final double backoffRatio;
+
+    private final Duration updateInterval;
+
+    private final AtomicInteger inflight = new AtomicInteger();
+    // samples since the last update: calls over the threshold, and fast calls made while the limit was in use
+    private final LongAdder slowSamples = new LongAdder();
+    private final LongAdder growSamples = new LongAdder();
+    private volatile double limit;
+    // only touched by the updater
+    private long lastDecreaseNanos;
+    private ScheduledExecutorService updater;
+    private final Map<Priority, Counter> rejected = new EnumMap<>(Priority.class);
+
+    public AdaptiveConcurrencyLimiter(ConcurrencyLimitProperties properties, MeterRegistry meterRegistry) {
+        this.enabled = properties.enabled();
+        this.minLimit = properties.minLimit();
+        this.maxLimit = properties.maxLimit();
+        this.thresholdNanos = properties.latencyThreshold().toNanos();
+        this.backoffRatio = properties.backoffRatio();
+        this.updateInterval = properties.updateInterval();
+        this.limit = properties.initialLimit();
+        this.lastDecreaseNanos = System.nanoTime() - thresholdNanos;
+
+        Gauge.builder("users.concurrency.limit", this, AdaptiveConcurrencyLimiter::getLimit)
+                .description("Current adaptive concurrency limit of the user service")
+                .register(meterRegistry);
+        Gauge.builder("users.concurrency.inflight", inflight, AtomicInteger::get)
+                .description("Calls currently running inside the user service")
+                .register(meterRegistry);
+        for (Priority priority : Priority.values()) {
+            rejected.put(priority, Counter.builder("users.concurrency.rejected")
+                    .description("Calls shed because the concurrency limit was reached")
+                    .tag("priority", priority.name().toLowerCase())
+                    .register(meterRegistry));
+        }
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        updater = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "users-concurrency-limit");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long period = updateInterval.toNanos();
+        updater.scheduleAtFixedRate(() -> update(System.nanoTime()), period, period, TimeUnit.NANOSECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (updater != null) {
+            updater.shutdownNow();
+        }
+    }
+
+    public <T> T execute(Priority priority, Supplier<T> call) {
+        if (!enabled) {
+            return call.get();
+        }
+        if (!tryAcquire(priority)) {
+            rejected.get(priority).increment();
+            throw new ServiceOverloadedException("Service is overloaded, retry later");
+        }
+        long start = System.nanoTime();
+        try {
+            return call.get();
+        } finally {
+            long latency = System.nanoTime() - start;
+            int before = inflight.getAndDecrement();
+            onSample(latency, before, start + latency);
+        }
+    }
+
+    public void run(Priority priority, Runnable call) {
+        execute(priority, () -> {
+            call.run();
+            return null;
+        });
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInflight() {
+        return inflight.get();
+    }
+
+    public double getRejected(Priority priority) {
+        return rejected.get(priority).count();
+    }
+
+    private boolean tryAcquire(Priority priority) {
+        int allowed = Math.max(1, (int) (limit * priority.share()));
+        while (true) {
+            int current = inflight.get();
+            if (current >= allowed) {
+                return false;
+            }
+            if (inflight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    // package-private for tests; called by every completing call, lock-free
+    void onSample(long latencyNanos, int inflight, long nowNanos) {
+        if (latencyNanos > thresholdNanos) {
+            slowSamples.increment();
+        } else if (inflight * 2 >= limit) {
+            // only grow while the limit is actually being used
+            growSamples.increment();
+        }
+    }
+
+    // package-private for tests; the updater thread is the only caller in the application
+    void update(long nowNanos) {
+        long slow = slowSamples.sumThenReset();
+        long grow = growSamples.sumThenReset();
+        if (slow > 0 && nowNanos - lastDecreaseNanos >= thresholdNanos) {
+            limit = Math.max(minLimit, limit * backoffRatio);
+            lastDecreaseNanos = nowNanos;
+        } else if (grow > 0) {
+            // n steps of limit += 1/limit, i.e. limit^2 grows by about 2 per step
+            limit = Math.min(maxLimit, Math.sqrt(limit * limit + 2.0 * grow));
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.armancodeblock.user_rest_api.concurrency;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// GET /actuator/concurrency
+@Component
+@Endpoint(id = "concurrency")
+public class ConcurrencyLimitEndpoint {
+
+    private final AdaptiveConcurrencyLimiter limiter;
+
+    public ConcurrencyLimitEndpoint(AdaptiveConcurrencyLimiter limiter) {
+        this.limiter = limiter;
+    }
+
+    @ReadOperation
+    public Map<String, Object> concurrency() {
+        Map<String, Object> rejected = new LinkedHashMap<>();
+        for (Priority priority : Priority.values()) {
+            rejected.put(priority.name().toLowerCase(), (long) limiter.getRejected(priority));
+        }
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("limit", limiter.getLimit());
+        result.put("inflight", limiter.getInflight());
+        result.put("rejected", rejected);
+        return result;
+    }
+}
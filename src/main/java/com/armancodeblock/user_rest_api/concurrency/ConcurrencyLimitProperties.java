@@ -0,0 +1,20 @@
+package com.armancodeblock.user_rest_api.concurrency;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+// users.concurrency.* in application.properties
+@ConfigurationProperties(prefix = "users.concurrency")
+public record ConcurrencyLimitProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("20") int initialLimit,
+        @DefaultValue("4") int minLimit,
+        @DefaultValue("200") int maxLimit,
+        // a call slower than this counts as a congestion signal
+        @DefaultValue("250ms") Duration latencyThreshold,
+        @DefaultValue("0.9") double backoffRatio,
+        // how often the samples are folded into the limit
+        @DefaultValue("100ms") Duration updateInterval) {
+}
@@ -0,0 +1,19 @@
+package com.armancodeblock.user_rest_api.concurrency;
+
+// Share of the concurrency limit each kind of call may occupy.
+// Anonymous list/search traffic is shed first, writes last.
+public enum Priority {
+    WRITE(1.0),
+    AUTHENTICATED_READ(0.9),
+    ANONYMOUS_READ(0.7);
+
+    private final double share;
+
+    Priority(double share) {
+        this.share = share;
+    }
+
+    public double share() {
+        return share;
+    }
+}
@@ -0,0 +1,84 @@
+package com.armancodeblock.user_rest_api.concurrency;
+
+import com.armancodeblock.user_rest_api.exception.ServiceOverloadedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+// Request coalescing: concurrent calls with an equal key share one execution of the loader.
+// The first caller (leader) runs the loader on its own thread, later callers wait for its result
+// or its exception. Keys should be records so the query kind is part of equality; the key's class
+// name is used as the "query" tag on the coalesced counter.
+@Component
+public class SingleFlight {
+
+    private final ConcurrentHashMap<Object, CompletableFuture<Object>> inflight = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Class<?>, Counter> coalesced = new ConcurrentHashMap<>();
+    private final long timeoutNanos;
+    private final MeterRegistry meterRegistry;
+
+    public SingleFlight(@Value("${users.single-flight.timeout:2s}") Duration timeout, MeterRegistry meterRegistry) {
+        this.timeoutNanos = timeout.toNanos();
+        this.meterRegistry = meterRegistry;
+    }
+
+    @SuppressWarnings("unchecked")
+    public <V> V execute(Object key, Supplier<V> loader) {
+        CompletableFuture<Object> call = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inflight.putIfAbsent(key, call);
+        if (existing == null) {
+            try {
+                V value = loader.get();
+                call.complete(value);
+                return value;
+            } catch (RuntimeException | Error e) {
+                call.completeExceptionally(e);
+                throw e;
+            } finally {
+                inflight.remove(key, call);
+            }
+        }
+        counter(key).increment();
+        return (V) await(existing);
+    }
+
+    public int inflight() {
+        return inflight.size();
+    }
+
+    private Object await(CompletableFuture<Object> call) {
+        try {
+            return call.get(timeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (ExecutionException e) {
+            // rethrow the leader's exception as is, so followers see the same error type (e.g. 404)
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            throw new ServiceOverloadedException("Timed out waiting for an in-flight request");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceOverloadedException("Interrupted waiting for an in-flight request");
+        }
+    }
+
+    private Counter counter(Object key) {
+        return coalesced.computeIfAbsent(key.getClass(), type -> Counter.builder("users.single_flight.coalesced")
+                .description("Reads that joined an identical in-flight call instead of querying the database")
+                .tag("query", type.getSimpleName())
+                .register(meterRegistry));
+    }
+}
@@ -0,0 +1,34 @@
+package com.armancodeblock.user_rest_api.controller;
+
+import com.armancodeblock.user_rest_api.changefeed.ChangeFeed;
+import com.armancodeblock.user_rest_api.changefeed.ChangePage;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+// Incremental sync instead of re-reading every page of /api/v1/users:
+// do one full scan, remember the change feed head, then follow the changes from there.
+@RestController
+@RequestMapping("/api/v1/users/changes")
+public class ChangeFeedController {
+
+    @Autowired
+    private ChangeFeed changeFeed;
+
+    // localhost:8080/api/v1/users/changes?since=42&wait=30 -> changes after 42, waiting up to 30s for the first one
+    @GetMapping
+    public DeferredResult<ChangePage> changes(@RequestParam(defaultValue = "0") long since,
+                                              @RequestParam(defaultValue = "100") int limit,
+                                              @RequestParam(defaultValue = "0") long wait) {
+        return changeFeed.poll(since, limit, wait * 1000);
+    }
+
+    // Server-Sent Events, event id = change seq; reconnecting clients send Last-Event-ID and resume after it
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(@RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId,
+                             @RequestParam(defaultValue = "0") long since) {
+        return changeFeed.subscribe(lastEventId != null ? lastEventId : since);
+    }
+}
@@ -27,9 +27,10 @@ public class LoginController {
     private AuthenticationManager authenticationManager;
 @PostMapping("/login")
     public ResponseEntity<?> getToken(@RequestBody AccountCredentials credentials){
-    logger.info("Login attempt for user {}", credentials.getUsername());
+    if (logger.isDebugEnabled()) {
+        logger.debug("Login attempt for user {}", credentials.getUsername());
+    }
     UsernamePasswordAuthenticationToken creds = new UsernamePasswordAuthenticationToken(credentials.getUsername(),credentials.getPassword());
-    logger.warn("Creds Object: " + creds);
 
      Authentication auth = authenticationManager.authenticate(creds);
 
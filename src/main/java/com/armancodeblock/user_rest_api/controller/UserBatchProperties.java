@@ -0,0 +1,11 @@
+package com.armancodeblock.user_rest_api.controller;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+// users.batch.* in application.properties
+@ConfigurationProperties(prefix = "users.batch")
+public record UserBatchProperties(
+        // ids per /api/v1/users/batch request, bigger batches get a 400
+        @DefaultValue("100") int maxSize) {
+}
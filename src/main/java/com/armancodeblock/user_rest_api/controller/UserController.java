@@ -1,6 +1,15 @@
 package com.armancodeblock.user_rest_api.controller;
 
 import com.armancodeblock.user_rest_api.enity.User;
+import com.armancodeblock.user_rest_api.exception.ResourceNotFoundException;
+import com.armancodeblock.user_rest_api.groupcommit.CreateStatus;
+import com.armancodeblock.user_rest_api.groupcommit.CreateTicket;
+import com.armancodeblock.user_rest_api.groupcommit.GroupCommitProperties;
+import com.armancodeblock.user_rest_api.groupcommit.GroupCommitWriter;
+import com.armancodeblock.user_rest_api.search.SearchCursor;
+import com.armancodeblock.user_rest_api.search.SearchProperties;
+import com.armancodeblock.user_rest_api.search.UserSearchPage;
+import com.armancodeblock.user_rest_api.service.UserLookup;
 import com.armancodeblock.user_rest_api.service.UserService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -8,10 +17,15 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.server.ResponseStatusException;
 
 import org.springframework.web.bind.annotation.*;
 
+import java.net.URI;
+import java.time.Duration;
 import java.util.List;
+import java.util.concurrent.CompletionException;
 
 @RestController
 @RequestMapping("/api/v1/users")
@@ -19,6 +33,14 @@ public class UserController {
     // diff between @Controller and @RestController
     @Autowired
     private UserService userService;
+    @Autowired
+    private UserBatchProperties batchProperties;
+    @Autowired
+    private SearchProperties searchProperties;
+    @Autowired
+    private GroupCommitWriter groupCommitWriter;
+    @Autowired
+    private GroupCommitProperties groupCommitProperties;
 
     @PostMapping
 
@@ -27,6 +49,72 @@ public class UserController {
         return new ResponseEntity<>(createdUser, HttpStatus.CREATED);
     }
 
+    // opt-in accepted-write mode (users.group-commit.enabled), RFC 7240 Prefer:
+    //   Prefer: respond-async      -> 202 Accepted right away, Location is the status handle
+    //   Prefer: wait=<seconds>     -> 201 once the user's group is committed, 202 if that takes longer
+    // either way the create is committed together with others (GroupCommitWriter)
+    @PostMapping(headers = "Prefer")
+    public DeferredResult<ResponseEntity<?>> createUserPreferAsync(@Valid @RequestBody User user,
+                                                                   @RequestHeader("Prefer") List<String> prefer) {
+        Duration wait = preferredWait(prefer);
+        boolean async = prefer.stream().anyMatch(p -> p.strip().equalsIgnoreCase("respond-async"));
+        if (!groupCommitWriter.isEnabled() || (!async && wait == null)) {
+            DeferredResult<ResponseEntity<?>> result = new DeferredResult<>();
+            result.setResult(createUser(user));
+            return result;
+        }
+        CreateTicket ticket = groupCommitWriter.submit(user);
+        long timeout = wait == null ? 0 : Math.min(wait.toMillis(), groupCommitProperties.maxWait().toMillis());
+        if (timeout <= 0) {
+            DeferredResult<ResponseEntity<?>> result = new DeferredResult<>();
+            result.setResult(accepted(ticket, async));
+            return result;
+        }
+        DeferredResult<ResponseEntity<?>> result = new DeferredResult<>(timeout, () -> accepted(ticket, async));
+        ticket.getResult().whenComplete((created, error) -> {
+            if (error != null) {
+                result.setErrorResult(error instanceof CompletionException ? error.getCause() : error);
+            } else {
+                result.setResult(ResponseEntity.status(HttpStatus.CREATED).body(created));
+            }
+        });
+        return result;
+    }
+
+    // status handle from a 202: PENDING, then COMMITTED with the user or FAILED with the reason
+    @GetMapping("/creates/{ticket}")
+    public ResponseEntity<CreateStatus> getCreateStatus(@PathVariable String ticket) {
+        CreateTicket found = groupCommitWriter.ticket(ticket);
+        if (found == null) {
+            throw new ResourceNotFoundException("Create ticket not found or expired: " + ticket);
+        }
+        return new ResponseEntity<>(found.status(), HttpStatus.OK);
+    }
+
+    private static ResponseEntity<?> accepted(CreateTicket ticket, boolean async) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.accepted()
+                .location(URI.create("/api/v1/users/creates/" + ticket.getId()));
+        if (async) {
+            response.header("Preference-Applied", "respond-async");
+        }
+        return response.body(ticket.status());
+    }
+
+    // wait=<seconds> among the comma separated preferences, null if absent or malformed
+    private static Duration preferredWait(List<String> prefer) {
+        for (String preference : prefer) {
+            String[] pair = preference.strip().split("=", 2);
+            if (pair.length == 2 && pair[0].strip().equalsIgnoreCase("wait")) {
+                try {
+                    return Duration.ofSeconds(Long.parseLong(pair[1].strip()));
+                } catch (NumberFormatException e) {
+                    return null;
+                }
+            }
+        }
+        return null;
+    }
+
     //client send a request(get) at path localhost:8080/api/v1/users
     // controller will handle this request and send a response({users,200})
     @GetMapping
@@ -43,6 +131,29 @@ public class UserController {
         return new ResponseEntity<>(user, HttpStatus.OK);
     }
 
+    // localhost:8080/api/v1/users/batch?ids=1,2,3 -> one lookup instead of one request per id
+    @GetMapping("/batch")
+    public ResponseEntity<List<UserLookup>> getUsersByIds(@RequestParam List<Long> ids) {
+        return new ResponseEntity<>(batch(ids), HttpStatus.OK);
+    }
+
+    // same as GET with the ids as a JSON array in the body, for lists too long for a URL
+    @PostMapping("/batch")
+    public ResponseEntity<List<UserLookup>> getUsersByIdsPost(@RequestBody List<Long> ids) {
+        return new ResponseEntity<>(batch(ids), HttpStatus.OK);
+    }
+
+    private List<UserLookup> batch(List<Long> ids) {
+        if (ids.size() > batchProperties.maxSize()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "At most " + batchProperties.maxSize() + " ids per batch, got " + ids.size());
+        }
+        if (ids.contains(null)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Batch ids must not be null");
+        }
+        return userService.getUsersByIds(ids);
+    }
+
     @DeleteMapping("/{userId}")
     public ResponseEntity<Void> deleteUserById(@PathVariable Long userId) {
         userService.deleteUserById(userId);
@@ -62,6 +173,28 @@ public class UserController {
     public ResponseEntity<List<User>> getAllUserByNamePrefix(@RequestParam String prefix) {
         return new ResponseEntity<>(userService.getAllUsersByNamePrefix(prefix), HttpStatus.OK);
     }
+    // localhost:8080/api/v1/users/search/ranked?q=jhon -> best matches on name or email, typos and substrings
+    // included; pass the returned next as after= for the following page
+    @GetMapping("/search/ranked")
+    public ResponseEntity<UserSearchPage> searchUsers(@RequestParam String q,
+                                                      @RequestParam(defaultValue = "20") int limit,
+                                                      @RequestParam(required = false) String after) {
+        String query = q.strip();
+        if (query.length() < 2 || query.length() > 100) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Search text must be 2 to 100 characters");
+        }
+        if (limit < 1 || limit > searchProperties.maxLimit()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "limit must be between 1 and " + searchProperties.maxLimit());
+        }
+        SearchCursor cursor;
+        try {
+            cursor = after == null ? null : SearchCursor.decode(after);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid search cursor");
+        }
+        return new ResponseEntity<>(userService.searchUsers(query, cursor, limit), HttpStatus.OK);
+    }
     @GetMapping("/search/paged")
     public ResponseEntity<Page<User>> getAllUserByNamePrefix(@RequestParam String prefix, Pageable pageable) {
         return new ResponseEntity<>(userService.getAllUserByNamePrefix(prefix, pageable), HttpStatus.OK);
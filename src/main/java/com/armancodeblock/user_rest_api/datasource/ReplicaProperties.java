@@ -0,0 +1,24 @@
+package com.armancodeblock.user_rest_api.datasource;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.List;
+
+// users.datasource.* in application.properties; routing is only set up when at least one replica is listed
+@ConfigurationProperties(prefix = "users.datasource")
+public record ReplicaProperties(List<Replica> replicas, Duration readYourWritesWindow, Duration healthCheckInterval) {
+
+    public ReplicaProperties {
+        replicas = replicas == null ? List.of() : List.copyOf(replicas);
+        if (readYourWritesWindow == null) {
+            readYourWritesWindow = Duration.ofSeconds(5);
+        }
+        if (healthCheckInterval == null) {
+            healthCheckInterval = Duration.ofSeconds(5);
+        }
+    }
+
+    public record Replica(String url, String username, String password) {
+    }
+}
@@ -0,0 +1,76 @@
+package com.armancodeblock.user_rest_api.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+// Replaces Boot's single pool with primary + replica pools when users.datasource.replicas[0].url is set.
+// spring.datasource.* describes the primary, spring.datasource.hikari.* applies to every pool.
+//
+// The application uses routingDataSource, which only fetches a connection at the first statement, after the
+// transaction manager has marked it read-only or not: read-only transactions (@Transactional(readOnly = true),
+// Spring Data's find* methods) get one from replicaDataSource, everything else from the primary.
+// It is excluded from datasource-micrometer (jdbc.excluded-data-source-bean-names): the SQL observation proxy
+// reads connection metadata on acquisition, which would fetch the connection before the read-only flag is set.
+@Configuration
+@ConditionalOnProperty(prefix = "users.datasource.replicas[0]", name = "url")
+public class ReplicaRoutingConfig {
+
+    @Bean
+    public ReadYourWrites readYourWrites(ReplicaProperties properties) {
+        return new ReadYourWrites(properties.readYourWritesWindow());
+    }
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties dataSourceProperties) {
+        return dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    public ReplicaDataSource replicaDataSource(@Qualifier("primaryDataSource") DataSource primaryDataSource,
+                                               ReplicaProperties properties, ReadYourWrites readYourWrites,
+                                               Environment environment, MeterRegistry meterRegistry) {
+        Binder binder = Binder.get(environment);
+        List<DataSource> replicas = new ArrayList<>();
+        for (int i = 0; i < properties.replicas().size(); i++) {
+            ReplicaProperties.Replica replica = properties.replicas().get(i);
+            HikariDataSource pool = DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .url(replica.url())
+                    .username(replica.username())
+                    .password(replica.password())
+                    .build();
+            binder.bind("spring.datasource.hikari", Bindable.ofInstance(pool));
+            pool.setPoolName("replica-" + i);
+            pool.setReadOnly(true);
+            replicas.add(pool);
+        }
+        return new ReplicaDataSource(primaryDataSource, replicas, readYourWrites,
+                properties.healthCheckInterval(), meterRegistry);
+    }
+
+    @Bean
+    @Primary
+    public LazyConnectionDataSourceProxy routingDataSource(@Qualifier("primaryDataSource") DataSource primaryDataSource,
+                                                           @Qualifier("replicaDataSource") DataSource replicaDataSource) {
+        LazyConnectionDataSourceProxy routing = new LazyConnectionDataSourceProxy(primaryDataSource);
+        routing.setReadOnlyDataSource(replicaDataSource);
+        return routing;
+    }
+}
@@ -27,6 +27,13 @@ public class User {
         this.email = email;
     }
 
+    // for rows read with plain JDBC (search)
+    public User(Long userId, String name, String email) {
+        this.userId = userId;
+        this.name = name;
+        this.email = email;
+    }
+
     public Long getUserId() {
         return userId;
     }
@@ -0,0 +1,62 @@
+package com.armancodeblock.user_rest_api.enity;
+
+import jakarta.persistence.*;
+
+import java.time.Instant;
+
+// One row per user mutation, written in the same transaction as the change. seq is the change feed cursor.
+@Entity
+@Table(name = "user_changes")
+public class UserChange {
+
+    public enum Action { CREATE, UPDATE, DELETE }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long seq;
+    @Column(nullable = false)
+    private Long userId;
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private Action action;
+    // values after the change, null for deletes
+    private String name;
+    private String email;
+    @Column(nullable = false)
+    private Instant changedAt;
+
+    public UserChange() {
+    }
+
+    public UserChange(Long userId, Action action, String name, String email, Instant changedAt) {
+        this.userId = userId;
+        this.action = action;
+        this.name = name;
+        this.email = email;
+        this.changedAt = changedAt;
+    }
+
+    public Long getSeq() {
+        return seq;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public Action getAction() {
+        return action;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public Instant getChangedAt() {
+        return changedAt;
+    }
+}
@@ -1,36 +1,126 @@
 package com.armancodeblock.user_rest_api.exception;
 
+import com.armancodeblock.user_rest_api.changefeed.CursorExpiredException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.ProblemDetail;
 import org.springframework.http.ResponseEntity;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.AuthenticationException;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseEntityExceptionHandler;
 
-import java.time.LocalDateTime;
-import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
+// Every error is an RFC 9457 problem detail (application/problem+json) with the status clients should act on:
+// 400 bad input, 404 miss, 409 conflict, 410 expired change feed cursor, 503 overloaded (retry later), 500 only for real bugs.
+// ResponseEntityExceptionHandler covers Spring MVC's own exceptions (bad JSON, wrong path variable type, 405, 415...).
+// Each response increments users.errors{exception,status}.
 @ControllerAdvice
-public class GlobalExceptionHandler {
-@ExceptionHandler(MethodArgumentNotValidException.class)
-    public ResponseEntity<Map<String,String>> handleValidationErrors(MethodArgumentNotValidException ex){
-        Map<String,String> errors = new HashMap<>();
-        ex.getBindingResult().getAllErrors().forEach(error->{
-            String field = ((FieldError) error).getField();
-            String message = error.getDefaultMessage();
-    errors.put(field, message);
-        });
+public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
 
-        return new ResponseEntity<>(errors, HttpStatus.BAD_REQUEST);
+    private static final Logger logger = LoggerFactory.getLogger(GlobalExceptionHandler.class);
+
+    private final MeterRegistry meterRegistry;
+    // one counter per exception type and status, so the hot 404 path is a map lookup instead of building meter ids.
+    // The status is part of the key: ResponseStatusException and other ErrorResponses carry their own
+    private final Map<CounterKey, Counter> counters = new ConcurrentHashMap<>();
+
+    public GlobalExceptionHandler(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected ResponseEntity<Object> handleMethodArgumentNotValid(@NonNull MethodArgumentNotValidException ex,
+                                                                  @NonNull HttpHeaders headers,
+                                                                  @NonNull HttpStatusCode status,
+                                                                  @NonNull WebRequest request) {
+        Map<String, String> errors = new LinkedHashMap<>();
+        for (FieldError error : ex.getBindingResult().getFieldErrors()) {
+            errors.put(error.getField(), error.getDefaultMessage());
+        }
+        ProblemDetail problem = ex.getBody();
+        problem.setDetail("Validation failed");
+        problem.setProperty("errors", errors);
+        return handleExceptionInternal(ex, problem, headers, status, request);
+    }
+
+    // counts the framework exceptions handled by the base class as well as the ones above
+    @Override
+    protected ResponseEntity<Object> handleExceptionInternal(@NonNull Exception ex, @Nullable Object body,
+                                                             @NonNull HttpHeaders headers,
+                                                             @NonNull HttpStatusCode statusCode,
+                                                             @NonNull WebRequest request) {
+        count(ex, statusCode);
+        return super.handleExceptionInternal(ex, body, headers, statusCode, request);
     }
 
 @ExceptionHandler(ResourceNotFoundException.class)
-    public ResponseEntity<Map<String,String>> handleResourceNotFoundException(ResourceNotFoundException ex){
-        Map<String,String> errors = new HashMap<>();
-        errors.put("error",ex.getMessage());
-        errors.put("timestamp", String.valueOf(LocalDateTime.now()));
-        return new ResponseEntity<>(errors,HttpStatus.INTERNAL_SERVER_ERROR);
+    public ResponseEntity<ProblemDetail> handleResourceNotFoundException(ResourceNotFoundException ex){
+        return problem(ex, HttpStatus.NOT_FOUND, ex.getMessage());
+    }
+
+    // unique constraint or concurrent update: the request was fine, the state wasn't
+@ExceptionHandler({DataIntegrityViolationException.class, OptimisticLockingFailureException.class})
+    public ResponseEntity<ProblemDetail> handleConflict(RuntimeException ex){
+        logger.debug("Conflict: {}", ex.getMessage());
+        return problem(ex, HttpStatus.CONFLICT, "The request conflicts with the current state of the resource");
+    }
+
+    // change feed cursor older than the retention window, the client has to rescan
+@ExceptionHandler(CursorExpiredException.class)
+    public ResponseEntity<ProblemDetail> handleCursorExpired(CursorExpiredException ex){
+        ResponseEntity<ProblemDetail> response = problem(ex, HttpStatus.GONE, ex.getMessage());
+        response.getBody().setProperty("head", ex.getHead());
+        return response;
+    }
+
+@ExceptionHandler(ServiceOverloadedException.class)
+    public ResponseEntity<ProblemDetail> handleServiceOverloadedException(ServiceOverloadedException ex){
+        count(ex, HttpStatus.SERVICE_UNAVAILABLE);
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(ProblemDetail.forStatusAndDetail(HttpStatus.SERVICE_UNAVAILABLE, ex.getMessage()));
+    }
+
+    // anything else is a bug: log it with its stack trace, don't leak the message
+@ExceptionHandler(Exception.class)
+    public ResponseEntity<ProblemDetail> handleUnexpected(Exception ex) throws Exception {
+        if (ex instanceof AccessDeniedException || ex instanceof AuthenticationException) {
+            // leave these to Spring Security's entry point / access denied handler
+            throw ex;
+        }
+        logger.error("Unhandled exception", ex);
+        return problem(ex, HttpStatus.INTERNAL_SERVER_ERROR, "Internal server error");
+    }
+
+    private ResponseEntity<ProblemDetail> problem(Exception ex, HttpStatus status, String detail) {
+        count(ex, status);
+        return ResponseEntity.status(status).body(ProblemDetail.forStatusAndDetail(status, detail));
+    }
+
+    private void count(Exception ex, HttpStatusCode status) {
+        counters.computeIfAbsent(new CounterKey(ex.getClass(), status.value()), key -> Counter.builder("users.errors")
+                .description("Error responses by exception type")
+                .tag("exception", key.type().getSimpleName())
+                .tag("status", Integer.toString(key.status()))
+                .register(meterRegistry)).increment();
     }
 
+    private record CounterKey(Class<?> type, int status) {}
 }
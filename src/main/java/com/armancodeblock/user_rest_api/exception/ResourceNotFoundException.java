@@ -1,7 +1,9 @@
 package com.armancodeblock.user_rest_api.exception;
 
+// An expected miss (unknown user id), answered with 404. No stack trace or suppression list:
+// filling one in costs more than the lookup itself and nobody ever reads it.
 public class ResourceNotFoundException extends RuntimeException{
     public ResourceNotFoundException(String message) {
-        super(message);
+        super(message, null, false, false);
     }
 }
@@ -0,0 +1,8 @@
+package com.armancodeblock.user_rest_api.exception;
+
+// Thrown for every shed request while overloaded, so it is stackless like ResourceNotFoundException.
+public class ServiceOverloadedException extends RuntimeException{
+    public ServiceOverloadedException(String message) {
+        super(message, null, false, false);
+    }
+}
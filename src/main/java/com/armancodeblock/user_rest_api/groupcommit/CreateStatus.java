@@ -0,0 +1,9 @@
+package com.armancodeblock.user_rest_api.groupcommit;
+
+import com.armancodeblock.user_rest_api.enity.User;
+
+// body of 202 Accepted and of GET /api/v1/users/creates/{ticket}; user once committed, error once failed
+public record CreateStatus(String ticket, State state, User user, String error) {
+
+    public enum State { PENDING, COMMITTED, FAILED }
+}
@@ -0,0 +1,47 @@
+package com.armancodeblock.user_rest_api.groupcommit;
+
+import com.armancodeblock.user_rest_api.enity.User;
+import com.armancodeblock.user_rest_api.exception.ServiceOverloadedException;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.util.concurrent.CompletableFuture;
+
+// One accepted create: the status handle handed to the client and the future its group completes.
+public class CreateTicket {
+
+    private final String id;
+    private final CompletableFuture<User> result = new CompletableFuture<>();
+
+    CreateTicket(String id) {
+        this.id = id;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public CompletableFuture<User> getResult() {
+        return result;
+    }
+
+    public CreateStatus status() {
+        if (!result.isDone()) {
+            return new CreateStatus(id, CreateStatus.State.PENDING, null, null);
+        }
+        if (result.isCompletedExceptionally()) {
+            return new CreateStatus(id, CreateStatus.State.FAILED, null, describe(result.exceptionNow()));
+        }
+        return new CreateStatus(id, CreateStatus.State.COMMITTED, result.resultNow(), null);
+    }
+
+    // same wording as GlobalExceptionHandler, nothing internal leaks through the status endpoint
+    private static String describe(Throwable error) {
+        if (error instanceof DataIntegrityViolationException) {
+            return "The request conflicts with the current state of the resource";
+        }
+        if (error instanceof ServiceOverloadedException) {
+            return error.getMessage();
+        }
+        return "Internal server error";
+    }
+}
@@ -0,0 +1,23 @@
+package com.armancodeblock.user_rest_api.groupcommit;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+// users.group-commit.* in application.properties
+@ConfigurationProperties(prefix = "users.group-commit")
+public record GroupCommitProperties(
+        // off: a Prefer header on POST /api/v1/users is ignored and every create commits on its own
+        @DefaultValue("false") boolean enabled,
+        // creates waiting for a group; a full queue answers 503
+        @DefaultValue("10000") int queueCapacity,
+        @DefaultValue("100") int batchSize,
+        // how long the first create of a group waits for company before the group is committed anyway
+        @DefaultValue("10ms") Duration maxDelay,
+        // upper bound for Prefer: wait=<seconds>
+        @DefaultValue("10s") Duration maxWait,
+        // how long a finished create stays queryable at /api/v1/users/creates/{ticket}
+        @DefaultValue("10m") Duration ticketTtl,
+        @DefaultValue("100000") int maxTickets) {
+}
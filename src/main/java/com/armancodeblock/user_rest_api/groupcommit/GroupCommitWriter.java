@@ -0,0 +1,228 @@
+package com.armancodeblock.user_rest_api.groupcommit;
+
+import com.armancodeblock.user_rest_api.audit.AuditLog;
+import com.armancodeblock.user_rest_api.datasource.ReadYourWrites;
+import com.armancodeblock.user_rest_api.enity.User;
+import com.armancodeblock.user_rest_api.exception.ServiceOverloadedException;
+import com.armancodeblock.user_rest_api.service.UserService;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+// Accepted-write mode for user creation (opt-in, see UserController#createUserPreferAsync). submit() puts the
+// validated user on a bounded queue and returns a ticket; one writer thread takes up to batchSize creates, or
+// whatever arrived within maxDelay of the first, and runs them through UserService.createUser in a single
+// transaction. Change feed rows, audit events and cache work are the same as for a synchronous create, but the
+// group pays for one commit (one WAL flush) instead of one per request. Identity ids still mean one INSERT per
+// row; the saving is the commits. With users.audit.durability=SYNC the writer waits once per group for its audit
+// events, not once per create.
+// If a group fails, its creates are retried one transaction each, so a bad row only fails its own ticket.
+// Metrics: users.group_commit.queue.depth, users.group_commit.batch.size, users.group_commit.commit (one group),
+// users.group_commit.latency (accepted to committed, per create), users.group_commit.creates{result}.
+@Component
+public class GroupCommitWriter {
+
+    private static final Logger logger = LoggerFactory.getLogger(GroupCommitWriter.class);
+
+    // the caller's security context goes along, the change feed, audit log and read-your-writes use its principal
+    private record Pending(CreateTicket ticket, String name, String email, SecurityContext context, long acceptedNanos) {}
+
+    private final UserService userService;
+    private final AuditLog auditLog;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectProvider<ReadYourWrites> readYourWrites;
+    private final GroupCommitProperties properties;
+    private final BlockingQueue<Pending> queue;
+    private final Cache<String, CreateTicket> tickets;
+    private final Thread writer;
+    private volatile boolean running = true;
+    private final DistributionSummary batchSize;
+    private final Timer commitTimer;
+    private final Timer latency;
+    private final Counter committed;
+    private final Counter failed;
+    private final Counter rejected;
+
+    public GroupCommitWriter(UserService userService, AuditLog auditLog, PlatformTransactionManager transactionManager,
+                             ObjectProvider<ReadYourWrites> readYourWrites, GroupCommitProperties properties,
+                             MeterRegistry meterRegistry) {
+        this.userService = userService;
+        this.auditLog = auditLog;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.readYourWrites = readYourWrites;
+        this.properties = properties;
+        this.queue = new ArrayBlockingQueue<>(properties.queueCapacity());
+        this.tickets = Caffeine.newBuilder()
+                .maximumSize(properties.maxTickets())
+                .expireAfterWrite(properties.ticketTtl())
+                .build();
+        this.batchSize = DistributionSummary.builder("users.group_commit.batch.size")
+                .description("Creates committed per transaction")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.commitTimer = Timer.builder("users.group_commit.commit")
+                .description("Time to write and commit one group")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.latency = Timer.builder("users.group_commit.latency")
+                .description("Time from accepting a create to its commit")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.committed = creates(meterRegistry, "committed");
+        this.failed = creates(meterRegistry, "failed");
+        this.rejected = creates(meterRegistry, "rejected");
+        Gauge.builder("users.group_commit.queue.depth", queue, BlockingQueue::size)
+                .description("Accepted creates waiting for their group")
+                .register(meterRegistry);
+        this.writer = new Thread(this::drain, "group-commit-writer");
+        writer.setDaemon(true);
+        if (properties.enabled()) {
+            writer.start();
+        }
+    }
+
+    private static Counter creates(MeterRegistry registry, String result) {
+        return Counter.builder("users.group_commit.creates")
+                .description("Accepted-mode creates by outcome")
+                .tag("result", result)
+                .register(registry);
+    }
+
+    public boolean isEnabled() {
+        return properties.enabled();
+    }
+
+    public CreateTicket submit(User user) {
+        CreateTicket ticket = new CreateTicket(UUID.randomUUID().toString());
+        Pending pending = new Pending(ticket, user.getName(), user.getEmail(),
+                SecurityContextHolder.getContext(), System.nanoTime());
+        if (!running || !queue.offer(pending)) {
+            rejected.increment();
+            throw new ServiceOverloadedException("Too many pending creates, retry later");
+        }
+        tickets.put(ticket.getId(), ticket);
+        return ticket;
+    }
+
+    public CreateTicket ticket(String id) {
+        return tickets.getIfPresent(id);
+    }
+
+    private void drain() {
+        long maxDelayNanos = properties.maxDelay().toNanos();
+        List<Pending> group = new ArrayList<>(properties.batchSize());
+        while (running || !queue.isEmpty()) {
+            try {
+                Pending first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                group.add(first);
+                long deadline = System.nanoTime() + maxDelayNanos;
+                while (group.size() < properties.batchSize()) {
+                    queue.drainTo(group, properties.batchSize() - group.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (group.size() >= properties.batchSize() || remaining <= 0) {
+                        break;
+                    }
+                    Pending next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    group.add(next);
+                }
+                commit(group);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                group.clear();
+            }
+        }
+    }
+
+    private void commit(List<Pending> group) {
+        List<User> created = new ArrayList<>(group.size());
+        long start = System.nanoTime();
+        try {
+            auditLog.batched(() -> transactionTemplate.executeWithoutResult(status -> {
+                for (Pending pending : group) {
+                    created.add(createAs(pending));
+                }
+            }));
+        } catch (RuntimeException e) {
+            logger.warn("Group commit of {} creates failed, retrying one by one: {}", group.size(), e.toString());
+            group.forEach(this::commitAlone);
+            return;
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+        commitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        batchSize.record(group.size());
+        for (int i = 0; i < group.size(); i++) {
+            completed(group.get(i), created.get(i));
+        }
+    }
+
+    private void commitAlone(Pending pending) {
+        long start = System.nanoTime();
+        try {
+            User user = createAs(pending);
+            commitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            batchSize.record(1);
+            completed(pending, user);
+        } catch (RuntimeException e) {
+            failed.increment();
+            pending.ticket().getResult().completeExceptionally(e);
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    // a fresh entity per attempt, a rolled back group leaves ids on the ones it tried
+    private User createAs(Pending pending) {
+        SecurityContextHolder.setContext(pending.context());
+        return userService.createUser(new User(pending.name(), pending.email()));
+    }
+
+    private void completed(Pending pending, User user) {
+        ReadYourWrites sticky = readYourWrites.getIfAvailable();
+        if (sticky != null) {
+            SecurityContextHolder.setContext(pending.context());
+            sticky.recordWrite();
+            SecurityContextHolder.clearContext();
+        }
+        latency.record(System.nanoTime() - pending.acceptedNanos(), TimeUnit.NANOSECONDS);
+        committed.increment();
+        pending.ticket().getResult().complete(user);
+    }
+
+    // commits what was accepted before the database goes away
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        if (writer.isAlive()) {
+            writer.join(TimeUnit.SECONDS.toMillis(10));
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.armancodeblock.user_rest_api.json;
+
+import com.armancodeblock.user_rest_api.enity.User;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.util.JsonRecyclerPools;
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.domain.Page;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+// The ObjectMapper behind every response body (and the UserCache L2 entries):
+// - hand-written serializers for User and Page, the bulk of what the API writes
+// - Blackbird for everything else: generated accessors instead of reflection
+// - a shared, bounded pool of Jackson's read/write buffers instead of one set per thread, so they are reused
+//   across Tomcat threads, async dispatches (change feed) and virtual threads alike
+//
+// Service-to-service callers can ask for a binary encoding instead of JSON with the Accept header
+// (and send one with Content-Type): application/cbor or application/x-jackson-smile. Both are built from the
+// same customized builder, so the document structure is exactly the JSON one: User is
+// {userId: int|null, name: text, email: text}, a page is the envelope PageJsonSerializer writes. A consumer's
+// JSON model decodes every format. Smile also back-references repeated field names, which pays off on pages.
+@Configuration
+public class JsonConfig {
+
+    public static Module userApiModule() {
+        SimpleModule module = new SimpleModule("user-api");
+        module.addSerializer(User.class, new UserJsonSerializer());
+        module.addSerializer(new PageJsonSerializer());
+        return module;
+    }
+
+    public static JsonFactory pooledJsonFactory(int poolSize) {
+        return JsonFactory.builder()
+                .recyclerPool(JsonRecyclerPools.newBoundedPool(poolSize))
+                .build();
+    }
+
+    @Bean
+    public Module userApiJsonModule() {
+        return userApiModule();
+    }
+
+    @Bean
+    public Module blackbirdModule() {
+        return new BlackbirdModule();
+    }
+
+    // the builder bean is a prototype with all customizers applied, factory() swaps only the encoding
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder,
+                                                                            JsonProperties properties) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(CBORFactory.builder()
+                .recyclerPool(JsonRecyclerPools.newBoundedPool(properties.bufferPoolSize()))
+                .build()).build());
+    }
+
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder,
+                                                                              JsonProperties properties) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.factory(SmileFactory.builder()
+                .recyclerPool(JsonRecyclerPools.newBoundedPool(properties.bufferPoolSize()))
+                .build()).build());
+    }
+
+    @Bean
+    public Jackson2ObjectMapperBuilderCustomizer pooledBuffers(JsonProperties properties) {
+        return builder -> builder.factory(pooledJsonFactory(properties.bufferPoolSize()));
+    }
+}
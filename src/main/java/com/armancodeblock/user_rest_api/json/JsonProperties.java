@@ -0,0 +1,11 @@
+package com.armancodeblock.user_rest_api.json;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+// users.json.* in application.properties
+@ConfigurationProperties(prefix = "users.json")
+public record JsonProperties(
+        // Jackson buffers kept for reuse; about the number of requests serialized at the same time
+        @DefaultValue("256") int bufferPoolSize) {
+}
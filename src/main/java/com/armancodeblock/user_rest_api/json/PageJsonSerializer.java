@@ -0,0 +1,121 @@
+package com.armancodeblock.user_rest_api.json;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.io.IOException;
+
+// Page responses in the shape the bean serializer gives PageImpl (what clients already parse), written field
+// by field: the content list is streamed element by element and nothing is introspected per request.
+public class PageJsonSerializer extends StdSerializer<Page<?>> {
+
+    private static final SerializedString CONTENT = new SerializedString("content");
+    private static final SerializedString PAGEABLE = new SerializedString("pageable");
+    private static final SerializedString PAGE_NUMBER = new SerializedString("pageNumber");
+    private static final SerializedString PAGE_SIZE = new SerializedString("pageSize");
+    private static final SerializedString SORT = new SerializedString("sort");
+    private static final SerializedString OFFSET = new SerializedString("offset");
+    private static final SerializedString PAGED = new SerializedString("paged");
+    private static final SerializedString UNPAGED = new SerializedString("unpaged");
+    private static final SerializedString TOTAL_PAGES = new SerializedString("totalPages");
+    private static final SerializedString TOTAL_ELEMENTS = new SerializedString("totalElements");
+    private static final SerializedString LAST = new SerializedString("last");
+    private static final SerializedString SIZE = new SerializedString("size");
+    private static final SerializedString NUMBER = new SerializedString("number");
+    private static final SerializedString NUMBER_OF_ELEMENTS = new SerializedString("numberOfElements");
+    private static final SerializedString FIRST = new SerializedString("first");
+    private static final SerializedString EMPTY = new SerializedString("empty");
+    private static final SerializedString SORTED = new SerializedString("sorted");
+    private static final SerializedString UNSORTED = new SerializedString("unsorted");
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public PageJsonSerializer() {
+        super((Class<Page<?>>) (Class) Page.class);
+    }
+
+    @Override
+    public void serialize(Page<?> page, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        gen.writeStartObject(page);
+        gen.writeFieldName(CONTENT);
+        writeContent(page, gen, provider);
+        gen.writeFieldName(PAGEABLE);
+        writePageable(page.getPageable(), gen);
+        gen.writeFieldName(TOTAL_PAGES);
+        gen.writeNumber(page.getTotalPages());
+        gen.writeFieldName(TOTAL_ELEMENTS);
+        gen.writeNumber(page.getTotalElements());
+        gen.writeFieldName(LAST);
+        gen.writeBoolean(page.isLast());
+        gen.writeFieldName(SIZE);
+        gen.writeNumber(page.getSize());
+        gen.writeFieldName(NUMBER);
+        gen.writeNumber(page.getNumber());
+        gen.writeFieldName(SORT);
+        writeSort(page.getSort(), gen);
+        gen.writeFieldName(NUMBER_OF_ELEMENTS);
+        gen.writeNumber(page.getNumberOfElements());
+        gen.writeFieldName(FIRST);
+        gen.writeBoolean(page.isFirst());
+        gen.writeFieldName(EMPTY);
+        gen.writeBoolean(page.isEmpty());
+        gen.writeEndObject();
+    }
+
+    private static void writeContent(Page<?> page, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        gen.writeStartArray(page, page.getNumberOfElements());
+        // pages hold one element type, so the serializer lookup happens once per page
+        Class<?> type = null;
+        JsonSerializer<Object> serializer = null;
+        for (Object element : page) {
+            if (element == null) {
+                provider.defaultSerializeNull(gen);
+                continue;
+            }
+            if (element.getClass() != type) {
+                type = element.getClass();
+                serializer = provider.findTypedValueSerializer(type, true, null);
+            }
+            serializer.serialize(element, gen, provider);
+        }
+        gen.writeEndArray();
+    }
+
+    private static void writePageable(Pageable pageable, JsonGenerator gen) throws IOException {
+        if (pageable.isUnpaged()) {
+            // what Pageable.unpaged() serialized to while it was an enum; the bean serializer now fails on it
+            gen.writeString("INSTANCE");
+            return;
+        }
+        gen.writeStartObject();
+        gen.writeFieldName(PAGE_NUMBER);
+        gen.writeNumber(pageable.getPageNumber());
+        gen.writeFieldName(PAGE_SIZE);
+        gen.writeNumber(pageable.getPageSize());
+        gen.writeFieldName(SORT);
+        writeSort(pageable.getSort(), gen);
+        gen.writeFieldName(OFFSET);
+        gen.writeNumber(pageable.getOffset());
+        gen.writeFieldName(PAGED);
+        gen.writeBoolean(true);
+        gen.writeFieldName(UNPAGED);
+        gen.writeBoolean(false);
+        gen.writeEndObject();
+    }
+
+    private static void writeSort(Sort sort, JsonGenerator gen) throws IOException {
+        gen.writeStartObject();
+        gen.writeFieldName(EMPTY);
+        gen.writeBoolean(sort.isEmpty());
+        gen.writeFieldName(SORTED);
+        gen.writeBoolean(sort.isSorted());
+        gen.writeFieldName(UNSORTED);
+        gen.writeBoolean(sort.isUnsorted());
+        gen.writeEndObject();
+    }
+}
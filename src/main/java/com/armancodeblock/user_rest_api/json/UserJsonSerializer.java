@@ -0,0 +1,39 @@
+package com.armancodeblock.user_rest_api.json;
+
+import com.armancodeblock.user_rest_api.enity.User;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+
+// Writes {"userId":..,"name":..,"email":..} straight from the getters, with the field names encoded once.
+// Same output as the bean serializer; keep the two in sync when User gets a field (UserApiJsonModuleTest).
+public class UserJsonSerializer extends StdSerializer<User> {
+
+    private static final SerializedString USER_ID = new SerializedString("userId");
+    private static final SerializedString NAME = new SerializedString("name");
+    private static final SerializedString EMAIL = new SerializedString("email");
+
+    public UserJsonSerializer() {
+        super(User.class);
+    }
+
+    @Override
+    public void serialize(User user, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        gen.writeStartObject(user);
+        gen.writeFieldName(USER_ID);
+        Long userId = user.getUserId();
+        if (userId == null) {
+            gen.writeNull();
+        } else {
+            gen.writeNumber(userId);
+        }
+        gen.writeFieldName(NAME);
+        gen.writeString(user.getName());
+        gen.writeFieldName(EMAIL);
+        gen.writeString(user.getEmail());
+        gen.writeEndObject();
+    }
+}
@@ -0,0 +1,22 @@
+package com.armancodeblock.user_rest_api.migration;
+
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// What Flyway does at startup is decided here at runtime rather than with spring.flyway.enabled, which an AOT
+// build (-Pfaststart) fixes at build time.
+@Configuration
+public class MigrationConfig {
+
+    @Bean
+    public FlywayMigrationStrategy flywayMigrationStrategy(MigrationProperties properties) {
+        return flyway -> {
+            switch (properties.onStartup()) {
+                case MIGRATE -> flyway.migrate();
+                case VALIDATE -> flyway.validate();
+                case NONE -> { }
+            }
+        };
+    }
+}
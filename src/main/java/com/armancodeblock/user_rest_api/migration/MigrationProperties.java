@@ -0,0 +1,18 @@
+package com.armancodeblock.user_rest_api.migration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+// users.migrations.* in application.properties
+@ConfigurationProperties(prefix = "users.migrations")
+public record MigrationProperties(@DefaultValue("migrate") OnStartup onStartup) {
+
+    public enum OnStartup {
+        // apply pending migrations, the first pod takes Flyway's lock and the others wait for it
+        MIGRATE,
+        // fail the start if the database is behind, for rolling deploys where a separate job migrates
+        VALIDATE,
+        // don't touch the database (CDS training run)
+        NONE
+    }
+}
@@ -0,0 +1,135 @@
+package com.armancodeblock.user_rest_api.ratelimit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.PathContainer;
+import org.springframework.lang.NonNull;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Per-route admission control. Authenticated callers are limited per principal, everyone else per remote IP.
+// Runs after JwtAuthenticationFilter (see SecurityConfig) so the principal is already known.
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final String ALREADY_FILTERED_ATTRIBUTE = RateLimitFilter.class.getName() + ALREADY_FILTERED_SUFFIX;
+    // same problem-details shape GlobalExceptionHandler produces, built once
+    private static final String TOO_MANY_REQUESTS_BODY =
+            "{\"type\":\"about:blank\",\"title\":\"Too Many Requests\",\"status\":429,\"detail\":\"Too many requests\"}";
+
+    private final List<LimitedRoute> routes;
+
+    public RateLimitFilter(RateLimitProperties properties, MeterRegistry meterRegistry) {
+        this.routes = !properties.enabled() ? List.of() : properties.routes().stream()
+                .map(route -> new LimitedRoute(route, properties.maxKeys(), meterRegistry))
+                .toList();
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        return routes.isEmpty();
+    }
+
+    @Override
+    protected String getAlreadyFilteredAttributeName() {
+        return ALREADY_FILTERED_ATTRIBUTE;
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request,
+                                    @NonNull HttpServletResponse response,
+                                    @NonNull FilterChain filterChain) throws ServletException, IOException {
+        LimitedRoute route = match(request);
+        if (route != null) {
+            long waitNanos = route.tryAcquire(request, System.nanoTime());
+            if (waitNanos > 0) {
+                reject(response, waitNanos);
+                return;
+            }
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    private LimitedRoute match(HttpServletRequest request) {
+        PathContainer path = null;
+        for (LimitedRoute route : routes) {
+            if (route.method != null && !route.method.equals(request.getMethod())) {
+                continue;
+            }
+            if (path == null) {
+                path = PathContainer.parsePath(request.getRequestURI().substring(request.getContextPath().length()));
+            }
+            if (route.pattern.matches(path)) {
+                return route;
+            }
+        }
+        return null;
+    }
+
+    private void reject(HttpServletResponse response, long waitNanos) throws IOException {
+        long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L));
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_PROBLEM_JSON_VALUE);
+        response.getWriter().write(TOO_MANY_REQUESTS_BODY);
+    }
+
+    private static final class LimitedRoute {
+        private final String method;
+        private final PathPattern pattern;
+        // separate maps keep the raw principal name / IP as key, no per-request key concatenation
+        private final RateLimiter byPrincipal;
+        private final RateLimiter byIp;
+        private final Counter principalThrottled;
+        private final Counter ipThrottled;
+
+        LimitedRoute(RateLimitProperties.Route route, int maxKeys, MeterRegistry meterRegistry) {
+            this.method = route.method() == null ? null : route.method().toUpperCase();
+            this.pattern = PathPatternParser.defaultInstance.parse(route.pattern());
+            this.byPrincipal = new RateLimiter(route.permitsPerSecond(), route.burst(), maxKeys);
+            this.byIp = new RateLimiter(route.permitsPerSecond(), route.burst(), maxKeys);
+            this.principalThrottled = throttledCounter(meterRegistry, route.pattern(), "principal");
+            this.ipThrottled = throttledCounter(meterRegistry, route.pattern(), "ip");
+        }
+
+        long tryAcquire(HttpServletRequest request, long nowNanos) {
+            Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+            if (auth != null && auth.isAuthenticated() && !(auth instanceof AnonymousAuthenticationToken)) {
+                long wait = byPrincipal.tryAcquire(auth.getName(), nowNanos);
+                if (wait > 0) {
+                    principalThrottled.increment();
+                }
+                return wait;
+            }
+            long wait = byIp.tryAcquire(request.getRemoteAddr(), nowNanos);
+            if (wait > 0) {
+                ipThrottled.increment();
+            }
+            return wait;
+        }
+
+        private static Counter throttledCounter(MeterRegistry registry, String route, String key) {
+            return Counter.builder("users.rate_limit.throttled")
+                    .description("Requests rejected with 429 by the rate limiter")
+                    .tag("route", route)
+                    .tag("key", key)
+                    .register(registry);
+        }
+    }
+}
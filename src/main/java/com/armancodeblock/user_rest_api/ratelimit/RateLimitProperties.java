@@ -0,0 +1,36 @@
+package com.armancodeblock.user_rest_api.ratelimit;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.List;
+
+// users.rate-limit.* in application.properties
+@ConfigurationProperties(prefix = "users.rate-limit")
+public record RateLimitProperties(boolean enabled, int maxKeys, List<Route> routes) {
+
+    public RateLimitProperties {
+        if (maxKeys <= 0) {
+            maxKeys = 100_000;
+        }
+        routes = routes == null ? List.of() : List.copyOf(routes);
+    }
+
+    // method is optional, null matches every method. A bad route fails binding at startup: burst 0 would reject
+    // every request and a rate of 0 or less never refills
+    public record Route(String method, String pattern, double permitsPerSecond, int burst) {
+
+        public Route {
+            if (pattern == null || pattern.isBlank()) {
+                throw new IllegalArgumentException("users.rate-limit route needs a pattern");
+            }
+            if (!(permitsPerSecond > 0) || Double.isInfinite(permitsPerSecond)) {
+                throw new IllegalArgumentException("users.rate-limit route " + pattern
+                        + ": permits-per-second must be positive, was " + permitsPerSecond);
+            }
+            if (burst < 1) {
+                throw new IllegalArgumentException("users.rate-limit route " + pattern
+                        + ": burst must be at least 1, was " + burst);
+            }
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.armancodeblock.user_rest_api.ratelimit;
+
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// One bucket per client key, held in a map bounded to maxKeys.
+// When the map is full, idle buckets are dropped first (they are full anyway, so nothing is lost);
+// if that is not enough, arbitrary buckets are dropped until the map is back under its bound.
+public class RateLimiter {
+    private final double permitsPerSecond;
+    private final int burst;
+    private final int maxKeys;
+    private final ConcurrentHashMap<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+    private final AtomicBoolean evicting = new AtomicBoolean();
+
+    public RateLimiter(double permitsPerSecond, int burst, int maxKeys) {
+        this.permitsPerSecond = permitsPerSecond;
+        this.burst = burst;
+        this.maxKeys = maxKeys;
+    }
+
+    // returns 0 when the request is admitted, otherwise the nanos the client should wait
+    public long tryAcquire(String key, long nowNanos) {
+        TokenBucket bucket = buckets.get(key);
+        if (bucket == null) {
+            if (buckets.size() >= maxKeys) {
+                evict(nowNanos);
+            }
+            bucket = buckets.computeIfAbsent(key, k -> new TokenBucket(permitsPerSecond, burst));
+        }
+        return bucket.tryAcquire(nowNanos);
+    }
+
+    public int size() {
+        return buckets.size();
+    }
+
+    private void evict(long nowNanos) {
+        if (!evicting.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            buckets.values().removeIf(bucket -> bucket.isIdle(nowNanos));
+            Iterator<TokenBucket> it = buckets.values().iterator();
+            while (buckets.size() >= maxKeys && it.hasNext()) {
+                it.next();
+                it.remove();
+            }
+        } finally {
+            evicting.set(false);
+        }
+    }
+}
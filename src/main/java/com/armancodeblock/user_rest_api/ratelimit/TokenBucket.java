@@ -0,0 +1,36 @@
+package com.armancodeblock.user_rest_api.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+// Lock-free token bucket using the GCRA formulation: the whole bucket state is a single
+// "theoretical arrival time" (tat), so acquiring is one CAS and nothing is allocated.
+// A bucket whose tat is in the past is full, which is what lets RateLimiter evict idle buckets for free.
+public class TokenBucket {
+    private final long intervalNanos;
+    private final long toleranceNanos;
+    private final AtomicLong tat = new AtomicLong(Long.MIN_VALUE);
+
+    public TokenBucket(double permitsPerSecond, int burst) {
+        this.intervalNanos = (long) (1_000_000_000L / permitsPerSecond);
+        this.toleranceNanos = intervalNanos * burst;
+    }
+
+    // returns 0 when a permit was taken, otherwise how many nanos until the next permit is available
+    public long tryAcquire(long nowNanos) {
+        while (true) {
+            long current = tat.get();
+            long next = Math.max(current, nowNanos) + intervalNanos;
+            long excess = next - nowNanos - toleranceNanos;
+            if (excess > 0) {
+                return excess;
+            }
+            if (tat.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    public boolean isIdle(long nowNanos) {
+        return tat.get() - nowNanos <= 0;
+    }
+}
@@ -0,0 +1,410 @@
+package com.armancodeblock.user_rest_api.readmodel;
+
+import com.armancodeblock.user_rest_api.enity.User;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.locks.StampedLock;
+
+// id -> (name, email) in a handful of primitive arrays instead of a map of User objects: no per-entry
+// headers, boxed keys or String/byte[] pairs, and nothing for the GC to trace (primitive arrays hold no references).
+//
+//   table                   open addressing index, linear probing. Slot i is table[2i] = id and table[2i + 1] =
+//                           the arena offsets of name and email packed into one long (-1 for null), so a lookup
+//                           touches one cache line. 0 is never an identity value, so it marks a free slot.
+//   arena                   the strings, appended as u16 length + UTF-8. Names repeat a lot and are
+//                           deduplicated through nameTable; emails are unique and just appended.
+//
+// Writes take the StampedLock's write lock (one writer at a time). Reads are lock-free in the common case: an
+// optimistic stamp, a plain read of the arrays, then validate(); a read that overlapped a write spins and tries
+// again (writes take well under a microsecond) and only takes the read lock if it keeps losing, e.g. to a compaction. A torn read can see arrays of different generations, so it may throw, which counts as a failed
+// validation. get() allocates the returned User: the store trades allocation on read for footprint at rest.
+// Replaced and removed emails leave garbage in the arena; once it is half the arena the strings are compacted.
+// image() and restore() hand the arrays out and back as they are (UserSnapshotFormat), so the slot layout depends on
+// hash(): changing it needs a new snapshot version.
+public class CompactUserStore {
+
+    private static final long FREE = 0;
+    private static final int NO_STRING = -1;
+    private static final int MAX_STRING_BYTES = 0xFFFF;
+    private static final int MIN_COMPACT_BYTES = 64 * 1024;
+    private static final int OPTIMISTIC_ATTEMPTS = 8;
+
+    private final StampedLock lock = new StampedLock();
+    private final int initialSlots;
+    private final int initialArena;
+    private long[] table;
+    private int size;
+    private byte[] arena;
+    private int arenaUsed;
+    private int abandoned;
+    // arena offset + 1 of each distinct name, 0 = free
+    private int[] nameTable;
+    private int nameCount;
+
+    // the arrays of a store; arena may be longer than arenaUsed, the rest is free space
+    public record Image(long[] table, int size, byte[] arena, int arenaUsed, int abandoned, int[] nameTable,
+                        int nameCount) {
+    }
+
+    public CompactUserStore(int expectedUsers) {
+        this.initialSlots = Integer.highestOneBit(Math.max(16, expectedUsers * 2 - 1)) << 1;
+        this.initialArena = Math.max(1024, expectedUsers * 32);
+        this.table = new long[initialSlots * 2];
+        this.arena = new byte[initialArena];
+        this.nameTable = new int[initialSlots];
+    }
+
+    // drops everything, back to the initial capacity
+    public void clear() {
+        long stamp = lock.writeLock();
+        try {
+            table = new long[initialSlots * 2];
+            size = 0;
+            arena = new byte[initialArena];
+            arenaUsed = 0;
+            abandoned = 0;
+            nameTable = new int[initialSlots];
+            nameCount = 0;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    // a consistent copy of the arrays, taken under the read lock (writers wait for the copy, not for the caller)
+    public Image image() {
+        long stamp = lock.readLock();
+        try {
+            return new Image(table.clone(), size, Arrays.copyOf(arena, arenaUsed), arenaUsed, abandoned,
+                    nameTable.clone(), nameCount);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    // replaces the contents with an image, the arrays are taken over without copying
+    public void restore(Image image) {
+        int slots = image.table().length >> 1;
+        if (slots < 16 || Integer.bitCount(slots) != 1 || image.table().length != slots * 2
+                || Integer.bitCount(image.nameTable().length) != 1
+                || image.size() < 0 || image.size() >= slots
+                || image.arenaUsed() < 0 || image.arenaUsed() > image.arena().length) {
+            throw new IllegalArgumentException("Not an image of a user store");
+        }
+        long stamp = lock.writeLock();
+        try {
+            table = image.table();
+            size = image.size();
+            arena = image.arena();
+            arenaUsed = image.arenaUsed();
+            abandoned = image.abandoned();
+            nameTable = image.nameTable();
+            nameCount = image.nameCount();
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public User get(long userId) {
+        for (int attempt = 0; attempt < OPTIMISTIC_ATTEMPTS; attempt++) {
+            long stamp = lock.tryOptimisticRead();
+            if (stamp == 0) {
+                Thread.onSpinWait();
+                continue;
+            }
+            try {
+                User user = lookup(userId);
+                if (lock.validate(stamp)) {
+                    return user;
+                }
+            } catch (RuntimeException torn) {
+                // overlapped a write that moved the arrays, try again
+            }
+            Thread.onSpinWait();
+        }
+        long stamp = lock.readLock();
+        try {
+            return lookup(userId);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    public void put(User user) {
+        put(user, true);
+    }
+
+    // read-through fill: never overwrites what a write put there
+    public void putIfAbsent(User user) {
+        put(user, false);
+    }
+
+    private void put(User user, boolean replace) {
+        long userId = user.getUserId();
+        byte[] name = utf8(user.getName());
+        byte[] email = utf8(user.getEmail());
+        long stamp = lock.writeLock();
+        try {
+            if ((size + 1) * 4L > slots() * 3L) {
+                rehash(slots() * 2);
+            }
+            int slot = slot(userId);
+            if (table[2 * slot] == userId) {
+                if (!replace) {
+                    return;
+                }
+                abandon(email(table[2 * slot + 1]));
+            } else {
+                size++;
+            }
+            int nameRef = internName(name);
+            int emailRef = append(email);
+            table[2 * slot] = userId;
+            table[2 * slot + 1] = refs(nameRef, emailRef);
+            if (abandoned > MIN_COMPACT_BYTES && abandoned > arenaUsed / 2) {
+                compact();
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public boolean remove(long userId) {
+        long stamp = lock.writeLock();
+        try {
+            int i = slot(userId);
+            if (table[2 * i] != userId) {
+                return false;
+            }
+            abandon(email(table[2 * i + 1]));
+            size--;
+            // backward shift: pull later entries of the probe chain into the hole, no tombstones
+            int mask = slots() - 1;
+            int j = i;
+            while (true) {
+                j = (j + 1) & mask;
+                if (table[2 * j] == FREE) {
+                    break;
+                }
+                int home = hash(table[2 * j]) & mask;
+                boolean reachable = i <= j ? (i < home && home <= j) : (i < home || home <= j);
+                if (!reachable) {
+                    table[2 * i] = table[2 * j];
+                    table[2 * i + 1] = table[2 * j + 1];
+                    i = j;
+                }
+            }
+            table[2 * i] = FREE;
+            table[2 * i + 1] = 0;
+            return true;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public int size() {
+        long stamp = lock.readLock();
+        try {
+            return size;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    // bytes held by the arrays, what the store costs on the heap
+    public long footprintBytes() {
+        long stamp = lock.readLock();
+        try {
+            return table.length * 8L + arena.length + nameTable.length * 4L;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    // decodes straight out of the arena; under an optimistic stamp the result is garbage until validated
+    private User lookup(long userId) {
+        long[] table = this.table;
+        byte[] arena = this.arena;
+        int mask = (table.length >> 1) - 1;
+        for (int i = hash(userId) & mask, probes = 0; probes <= mask; i = (i + 1) & mask, probes++) {
+            long key = table[2 * i];
+            if (key == FREE) {
+                return null;
+            }
+            if (key == userId) {
+                long refs = table[2 * i + 1];
+                return new User(userId, string(arena, name(refs)), string(arena, email(refs)));
+            }
+        }
+        return null;
+    }
+
+    private static String string(byte[] arena, int offset) {
+        if (offset == NO_STRING) {
+            return null;
+        }
+        int length = ((arena[offset] & 0xFF) << 8) | (arena[offset + 1] & 0xFF);
+        return new String(arena, offset + 2, length, StandardCharsets.UTF_8);
+    }
+
+    private static byte[] copy(byte[] arena, int offset) {
+        if (offset == NO_STRING) {
+            return null;
+        }
+        int length = ((arena[offset] & 0xFF) << 8) | (arena[offset + 1] & 0xFF);
+        return Arrays.copyOfRange(arena, offset + 2, offset + 2 + length);
+    }
+
+    private int slots() {
+        return table.length >> 1;
+    }
+
+    private static long refs(int name, int email) {
+        return ((long) name << 32) | (email & 0xFFFFFFFFL);
+    }
+
+    private static int name(long refs) {
+        return (int) (refs >>> 32);
+    }
+
+    private static int email(long refs) {
+        return (int) refs;
+    }
+
+    // slot holding userId, or the free slot where it would go
+    private int slot(long userId) {
+        int mask = slots() - 1;
+        int i = hash(userId) & mask;
+        while (table[2 * i] != FREE && table[2 * i] != userId) {
+            i = (i + 1) & mask;
+        }
+        return i;
+    }
+
+    private void rehash(int slots) {
+        long[] old = table;
+        long[] grown = new long[slots * 2];
+        int mask = slots - 1;
+        for (int i = 0; i < old.length; i += 2) {
+            if (old[i] != FREE) {
+                int j = hash(old[i]) & mask;
+                while (grown[2 * j] != FREE) {
+                    j = (j + 1) & mask;
+                }
+                grown[2 * j] = old[i];
+                grown[2 * j + 1] = old[i + 1];
+            }
+        }
+        table = grown;
+    }
+
+    private int internName(byte[] name) {
+        if (name == null) {
+            return NO_STRING;
+        }
+        if ((nameCount + 1) * 2 > nameTable.length) {
+            rehashNames(nameTable.length * 2);
+        }
+        int mask = nameTable.length - 1;
+        int i = hash(name) & mask;
+        while (nameTable[i] != 0) {
+            int offset = nameTable[i] - 1;
+            if (matches(offset, name)) {
+                return offset;
+            }
+            i = (i + 1) & mask;
+        }
+        int offset = append(name);
+        nameTable[i] = offset + 1;
+        nameCount++;
+        return offset;
+    }
+
+    private void rehashNames(int slots) {
+        int[] table = new int[slots];
+        int mask = slots - 1;
+        for (int entry : nameTable) {
+            if (entry != 0) {
+                int i = hash(copy(arena, entry - 1)) & mask;
+                while (table[i] != 0) {
+                    i = (i + 1) & mask;
+                }
+                table[i] = entry;
+            }
+        }
+        nameTable = table;
+    }
+
+    private boolean matches(int offset, byte[] value) {
+        int length = ((arena[offset] & 0xFF) << 8) | (arena[offset + 1] & 0xFF);
+        return length == value.length
+                && Arrays.equals(arena, offset + 2, offset + 2 + length, value, 0, value.length);
+    }
+
+    private int append(byte[] value) {
+        if (value == null) {
+            return NO_STRING;
+        }
+        int needed = 2 + value.length;
+        if (arenaUsed + needed > arena.length) {
+            long grown = Math.max((long) arena.length * 2, (long) arenaUsed + needed);
+            if (grown > Integer.MAX_VALUE - 8) {
+                throw new IllegalStateException("User store arena is full");
+            }
+            arena = Arrays.copyOf(arena, (int) grown);
+        }
+        int offset = arenaUsed;
+        arena[offset] = (byte) (value.length >>> 8);
+        arena[offset + 1] = (byte) value.length;
+        System.arraycopy(value, 0, arena, offset + 2, value.length);
+        arenaUsed += needed;
+        return offset;
+    }
+
+    private void abandon(int offset) {
+        if (offset != NO_STRING) {
+            abandoned += 2 + (((arena[offset] & 0xFF) << 8) | (arena[offset + 1] & 0xFF));
+        }
+    }
+
+    // copies the live strings into a fresh arena, unreferenced names go as well
+    private void compact() {
+        byte[] old = arena;
+        arena = new byte[Math.max(1024, (arenaUsed - abandoned) + (arenaUsed - abandoned) / 2)];
+        arenaUsed = 0;
+        abandoned = 0;
+        nameTable = new int[nameTable.length];
+        nameCount = 0;
+        for (int i = 0; i < table.length; i += 2) {
+            if (table[i] != FREE) {
+                long refs = table[i + 1];
+                table[i + 1] = refs(internName(copy(old, name(refs))), append(copy(old, email(refs))));
+            }
+        }
+    }
+
+    private static byte[] utf8(String value) {
+        if (value == null) {
+            return null;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > MAX_STRING_BYTES) {
+            throw new IllegalArgumentException("String too long for the user store: " + bytes.length + " bytes");
+        }
+        return bytes;
+    }
+
+    // murmur3 finalizer, ids are sequential
+    private static int hash(long key) {
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        key *= 0xc4ceb9fe1a85ec53L;
+        key ^= key >>> 33;
+        return (int) key;
+    }
+
+    private static int hash(byte[] value) {
+        return hash((long) Arrays.hashCode(value));
+    }
+}
@@ -0,0 +1,19 @@
+package com.armancodeblock.user_rest_api.readmodel;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+// users.read-model.* in application.properties
+@ConfigurationProperties(prefix = "users.read-model")
+public record ReadModelProperties(
+        @DefaultValue("false") boolean enabled,
+        // sizes the index and arena up front, they grow past it
+        @DefaultValue("100000") int expectedUsers,
+        // load the whole users table before the node reports ready, instead of filling on reads
+        @DefaultValue("false") boolean preload,
+        @DefaultValue("10000") int preloadPageSize,
+        // how often the user_changes journal is read for the changes the invalidation bus may have lost
+        @DefaultValue("1s") Duration catchUpInterval) {
+}
@@ -0,0 +1,264 @@
+package com.armancodeblock.user_rest_api.readmodel;
+
+import com.armancodeblock.user_rest_api.cache.CacheInvalidationBus;
+import com.armancodeblock.user_rest_api.cache.UserCacheProperties;
+import com.armancodeblock.user_rest_api.changefeed.ChangeFeed;
+import com.armancodeblock.user_rest_api.changefeed.ChangeFeedProperties;
+import com.armancodeblock.user_rest_api.changefeed.ChangePage;
+import com.armancodeblock.user_rest_api.changefeed.CursorExpiredException;
+import com.armancodeblock.user_rest_api.enity.User;
+import com.armancodeblock.user_rest_api.enity.UserChange;
+import com.armancodeblock.user_rest_api.repository.UserChangeRepository;
+import com.armancodeblock.user_rest_api.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Optional id -> user read model in front of UserCache for very large user tables (users.read-model.enabled),
+// held in a CompactUserStore so millions of users cost tens of bytes each instead of a few hundred.
+// UserService writes through it after each commit and fills it on reads it had to load. Other replicas' writes
+// arrive on the CacheInvalidationBus and remove the id, but that bus is best effort: every catchUpInterval the
+// user_changes journal is read from this node's cursor through ChangeFeed.read (which waits in front of gaps that
+// may still commit) and applied, so a lost message leaves an entry stale for one interval, not forever. There is
+// no TTL or size bound on top: the store is meant to hold the whole table and the journal keeps it current.
+// Like UserCache, ids invalidated within users.cache.invalidation-window are not filled from reads, the load may
+// have seen the old row.
+// With preload the table is read by id before the node reports ready (see UserSnapshotter for the mechanism),
+// unless UserSnapshotter restored the store from a snapshot and caught it up with the journal.
+// Metrics: users.read_model.size, users.read_model.bytes, users.read_model.lag (journal rows not applied yet).
+@Component
+public class UserReadModel implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserReadModel.class);
+    private static final int CATCH_UP_PAGE = 1000;
+
+    private final ReadModelProperties properties;
+    private final UserRepository userRepository;
+    private final UserChangeRepository changeRepository;
+    private final ChangeFeed changeFeed;
+    private final Duration gapTimeout;
+    private final CompactUserStore store;
+    private final Cache<Long, Boolean> recentlyInvalidated;
+    private volatile boolean restored;
+    // last journal seq applied; only the runner and then the catch-up thread move it
+    private volatile long cursor;
+    private volatile long head;
+    private ScheduledExecutorService catchUp;
+
+    public UserReadModel(ReadModelProperties properties, UserCacheProperties cacheProperties,
+                         UserRepository userRepository, UserChangeRepository changeRepository, ChangeFeed changeFeed,
+                         ChangeFeedProperties changeFeedProperties, CacheInvalidationBus bus,
+                         MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.userRepository = userRepository;
+        this.changeRepository = changeRepository;
+        this.changeFeed = changeFeed;
+        this.gapTimeout = changeFeedProperties.gapTimeout();
+        this.store = new CompactUserStore(properties.enabled() ? properties.expectedUsers() : 16);
+        // same window as UserCache, and likewise not size-bounded so a write burst can't evict markers early
+        this.recentlyInvalidated = Caffeine.newBuilder()
+                .expireAfterWrite(cacheProperties.invalidationWindow())
+                .build();
+        if (properties.enabled()) {
+            Gauge.builder("users.read_model.size", store, CompactUserStore::size)
+                    .description("Users held in the compact read model")
+                    .register(meterRegistry);
+            Gauge.builder("users.read_model.bytes", store, CompactUserStore::footprintBytes)
+                    .description("Heap held by the compact read model")
+                    .baseUnit("bytes")
+                    .register(meterRegistry);
+            Gauge.builder("users.read_model.lag", this, model -> Math.max(0, model.head - model.cursor))
+                    .description("Journal changes not yet applied to the read model")
+                    .register(meterRegistry);
+            bus.subscribe(this::invalidated);
+        }
+    }
+
+    public boolean isEnabled() {
+        return properties.enabled();
+    }
+
+    // null on a miss or when disabled
+    public User get(Long userId) {
+        return properties.enabled() ? store.get(userId) : null;
+    }
+
+    // a user loaded by a read
+    public void offer(User user) {
+        if (properties.enabled() && user.getUserId() != null
+                && recentlyInvalidated.getIfPresent(user.getUserId()) == null) {
+            store.putIfAbsent(user);
+        }
+    }
+
+    // called by UserService inside the mutation's transaction, applied after commit
+    public void written(User user) {
+        if (properties.enabled()) {
+            afterCommit(() -> store.put(user));
+        }
+    }
+
+    public void deleted(Long userId) {
+        if (properties.enabled()) {
+            afterCommit(() -> store.remove(userId));
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private void invalidated(long userId) {
+        recentlyInvalidated.put(userId, Boolean.TRUE);
+        store.remove(userId);
+    }
+
+    public int size() {
+        return store.size();
+    }
+
+    // the store's arrays for a snapshot, see UserSnapshotter
+    public CompactUserStore.Image image() {
+        return store.image();
+    }
+
+    // replaces the contents with a snapshot taken at seq and replays the journal since, returns the changes replayed.
+    // The replay also takes rows up to gapTimeout older than the snapshot: a transaction that held a lower seq may
+    // have committed after the head was read. Replaying a change the snapshot already reflects is harmless.
+    public int restore(CompactUserStore.Image image, long seq, Instant createdAt) {
+        store.restore(image);
+        restored = true;
+        long after = settledBefore(seq, createdAt);
+        int applied = 0;
+        while (true) {
+            List<UserChange> changes = changeRepository.findBySeqGreaterThanOrderBySeqAsc(after, Limit.of(CATCH_UP_PAGE));
+            apply(changes);
+            if (!changes.isEmpty()) {
+                after = changes.get(changes.size() - 1).getSeq();
+            }
+            applied += changes.size();
+            if (changes.size() < CATCH_UP_PAGE) {
+                break;
+            }
+        }
+        // the replay doesn't wait in front of gaps; the catch-up goes over the recent ones again, and waits
+        cursor = settledBefore(after, Instant.now());
+        return applied;
+    }
+
+    // seq, or the seq before the first journal row written within gapTimeout of at if that is lower
+    private long settledBefore(long seq, Instant at) {
+        UserChange recent = changeRepository.findFirstByChangedAtGreaterThanEqualOrderBySeqAsc(at.minus(gapTimeout));
+        return recent == null ? seq : Math.min(seq, recent.getSeq() - 1);
+    }
+
+    // journal rows are committed, so they go in whatever the invalidation markers say; the marker keeps a read
+    // that loaded the row before the change from filling the old version back in
+    private void apply(List<UserChange> changes) {
+        for (UserChange change : changes) {
+            recentlyInvalidated.put(change.getUserId(), Boolean.TRUE);
+            if (change.getAction() == UserChange.Action.DELETE) {
+                store.remove(change.getUserId());
+            } else {
+                store.put(new User(change.getUserId(), change.getName(), change.getEmail()));
+            }
+        }
+    }
+
+    // one catch-up round: the journal from the cursor up to the first gap that may still commit
+    void catchUp() {
+        try {
+            Long max = changeRepository.findMaxSeq();
+            head = max == null ? 0 : max;
+            while (cursor < head) {
+                ChangePage page = changeFeed.read(cursor, CATCH_UP_PAGE);
+                apply(page.changes());
+                cursor = page.next();
+                if (page.changes().isEmpty()) {
+                    return;
+                }
+            }
+        } catch (CursorExpiredException e) {
+            // paused for longer than the journal is retained, what was missed is unknown
+            logger.warn("Read model fell behind the retained changes, dropping it and continuing from {}", e.getHead());
+            store.clear();
+            cursor = e.getHead();
+        } catch (RuntimeException e) {
+            logger.warn("Read model catch-up failed: {}", e.toString());
+        }
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!properties.enabled()) {
+            return;
+        }
+        if (!restored) {
+            Long max = changeRepository.findMaxSeq();
+            cursor = settledBefore(max == null ? 0 : max, Instant.now());
+            if (properties.preload()) {
+                preload();
+            }
+        }
+        catchUp = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "read-model-catch-up");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = properties.catchUpInterval().toMillis();
+        catchUp.scheduleWithFixedDelay(this::catchUp, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    private void preload() {
+        long start = System.nanoTime();
+        long after = 0;
+        int loaded = 0;
+        while (true) {
+            List<User> page = userRepository.findByUserIdGreaterThanOrderByUserIdAsc(after,
+                    Limit.of(properties.preloadPageSize()));
+            for (User user : page) {
+                store.putIfAbsent(user);
+                after = user.getUserId();
+            }
+            loaded += page.size();
+            if (page.size() < properties.preloadPageSize()) {
+                break;
+            }
+        }
+        logger.info("Read model preloaded with {} users ({} bytes) in {} ms", loaded, store.footprintBytes(),
+                (System.nanoTime() - start) / 1_000_000);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (catchUp != null) {
+            catchUp.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.armancodeblock.user_rest_api.repository;
+
+import com.armancodeblock.user_rest_api.enity.UserChange;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface UserChangeRepository extends JpaRepository<UserChange, Long> {
+
+    List<UserChange> findBySeqGreaterThanOrderBySeqAsc(long since, Limit limit);
+
+    @Query("SELECT MAX(c.seq) FROM UserChange c")
+    Long findMaxSeq();
+
+    UserChange findFirstByOrderBySeqAsc();
+
+    // where a snapshot catch-up starts
+    UserChange findFirstByChangedAtGreaterThanEqualOrderBySeqAsc(Instant since);
+
+    // bulk delete, no entity loading
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM UserChange c WHERE c.changedAt < :cutoff")
+    int deleteChangedBefore(@Param("cutoff") Instant cutoff);
+}
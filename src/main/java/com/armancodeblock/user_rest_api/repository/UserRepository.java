@@ -1,12 +1,15 @@
 package com.armancodeblock.user_rest_api.repository;
 
 import com.armancodeblock.user_rest_api.enity.User;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 //Derived Methods
@@ -21,6 +24,19 @@ Page<User> findByNameStartingWith(String prefix,Pageable pageable);
 @Query("SELECT u FROM User u WHERE u.name LIKE :prefix%")
 List<User> findUserByNamePrefix(@Param("prefix") String prefix);
 
+// one round trip for a batch of ids; IN lists are padded to powers of two (in_clause_parameter_padding)
+// so the database sees a handful of statement shapes instead of one per batch size
+@Query("SELECT u FROM User u WHERE u.userId IN :ids")
+List<User> findAllByUserIdIn(@Param("ids") Collection<Long> ids);
+
+// returns the rows deleted, so a delete of an id that doesn't exist isn't journaled or audited
+@Modifying
+@Query("DELETE FROM User u WHERE u.userId = :userId")
+int deleteByUserId(@Param("userId") Long userId);
+
+// keyset scan of the whole table (read model preload)
+List<User> findByUserIdGreaterThanOrderByUserIdAsc(long after, Limit limit);
+
 }
 
 
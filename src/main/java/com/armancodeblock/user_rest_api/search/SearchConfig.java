@@ -0,0 +1,22 @@
+package com.armancodeblock.user_rest_api.search;
+
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.jdbc.DatabaseDriver;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+// Trigram search on PostgreSQL, the scanning fallback anywhere else. Decided from the configured URL,
+// so startup doesn't need a connection.
+@Configuration
+public class SearchConfig {
+
+    @Bean
+    public UserSearch userSearch(DataSourceProperties dataSourceProperties, JdbcTemplate jdbcTemplate,
+                                 SearchProperties properties) {
+        if (DatabaseDriver.fromJdbcUrl(dataSourceProperties.determineUrl()) == DatabaseDriver.POSTGRESQL) {
+            return new TrigramUserSearch(jdbcTemplate, properties);
+        }
+        return new SimpleUserSearch(jdbcTemplate);
+    }
+}
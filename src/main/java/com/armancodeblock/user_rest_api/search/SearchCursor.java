@@ -0,0 +1,29 @@
+package com.armancodeblock.user_rest_api.search;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+// Position after the last hit of a page. Opaque to clients; the score is encoded by its bits so the next
+// page compares against exactly the value the database returned.
+public record SearchCursor(double score, long userId) {
+
+    public static SearchCursor after(SearchHit hit) {
+        return new SearchCursor(hit.score(), hit.user().getUserId());
+    }
+
+    public String encode() {
+        String raw = Long.toHexString(Double.doubleToLongBits(score)) + ":" + userId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    // IllegalArgumentException for anything that isn't a cursor we handed out
+    public static SearchCursor decode(String cursor) {
+        String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.US_ASCII);
+        int colon = raw.indexOf(':');
+        if (colon < 0) {
+            throw new IllegalArgumentException("Malformed search cursor");
+        }
+        return new SearchCursor(Double.longBitsToDouble(Long.parseUnsignedLong(raw.substring(0, colon), 16)),
+                Long.parseLong(raw.substring(colon + 1)));
+    }
+}
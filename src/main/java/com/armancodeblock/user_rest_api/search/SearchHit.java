@@ -0,0 +1,7 @@
+package com.armancodeblock.user_rest_api.search;
+
+import com.armancodeblock.user_rest_api.enity.User;
+
+// score is 0..1, 1 being an exact match
+public record SearchHit(User user, double score) {
+}
@@ -0,0 +1,12 @@
+package com.armancodeblock.user_rest_api.search;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+// users.search.* in application.properties
+@ConfigurationProperties(prefix = "users.search")
+public record SearchProperties(
+        @DefaultValue("100") int maxLimit,
+        // pg_trgm word similarity a row needs to match at all; lower finds more typos and more noise
+        @DefaultValue("0.4") float minSimilarity) {
+}
@@ -0,0 +1,44 @@
+package com.armancodeblock.user_rest_api.search;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.Locale;
+
+// Fallback for databases without pg_trgm (H2 in tests and local runs): exact, prefix and substring matches,
+// plus same-sounding names (SOUNDEX) as a rough stand-in for typo tolerance. Scans the table, fine for
+// test-sized data only.
+public class SimpleUserSearch implements UserSearch {
+
+    private static final String RANKED = "SELECT user_id, name, email, CAST(CASE "
+            + "WHEN LOWER(name) = ? OR LOWER(email) = ? THEN 1.0 "
+            + "WHEN LOWER(name) LIKE ? ESCAPE '\\' OR LOWER(email) LIKE ? ESCAPE '\\' THEN 0.8 "
+            + "WHEN LOWER(name) LIKE ? ESCAPE '\\' OR LOWER(email) LIKE ? ESCAPE '\\' THEN 0.6 "
+            + "WHEN DIFFERENCE(name, ?) = 4 THEN 0.4 "
+            + "ELSE 0 END AS DOUBLE PRECISION) AS score FROM users";
+    private static final String FIRST_PAGE = "SELECT * FROM (" + RANKED + ") ranked "
+            + "WHERE score > 0 ORDER BY score DESC, user_id LIMIT ?";
+    private static final String NEXT_PAGE = "SELECT * FROM (" + RANKED + ") ranked "
+            + "WHERE score > 0 AND (score < ? OR (score = ? AND user_id > ?)) ORDER BY score DESC, user_id LIMIT ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public SimpleUserSearch(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public List<SearchHit> search(String query, SearchCursor after, int limit) {
+        String exact = query.toLowerCase(Locale.ROOT);
+        String escaped = exact.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+        String prefix = escaped + "%";
+        String substring = "%" + escaped + "%";
+        if (after == null) {
+            return jdbcTemplate.query(FIRST_PAGE, TrigramUserSearch.HIT,
+                    exact, exact, prefix, prefix, substring, substring, query, limit);
+        }
+        return jdbcTemplate.query(NEXT_PAGE, TrigramUserSearch.HIT,
+                exact, exact, prefix, prefix, substring, substring, query,
+                after.score(), after.score(), after.userId(), limit);
+    }
+}
@@ -0,0 +1,45 @@
+package com.armancodeblock.user_rest_api.search;
+
+import com.armancodeblock.user_rest_api.enity.User;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.util.List;
+
+// PostgreSQL: pg_trgm word similarity, backed by the GIN trigram indexes on name and email (db/migration V4).
+// word_similarity(q, column) scores the best matching part of the column, so substrings ("doe" in
+// "John Doe") and typos ("jhon") both match; `q <% column` is the indexable form of
+// word_similarity(q, column) >= pg_trgm.word_similarity_threshold.
+// Must run inside a transaction: the threshold is set with SET LOCAL semantics.
+public class TrigramUserSearch implements UserSearch {
+
+    private static final String RANKED = "SELECT user_id, name, email, "
+            + "CAST(GREATEST(word_similarity(?, name), word_similarity(?, email)) AS DOUBLE PRECISION) AS score "
+            + "FROM users WHERE ? <% name OR ? <% email";
+    private static final String FIRST_PAGE = "SELECT * FROM (" + RANKED + ") ranked "
+            + "ORDER BY score DESC, user_id LIMIT ?";
+    private static final String NEXT_PAGE = "SELECT * FROM (" + RANKED + ") ranked "
+            + "WHERE score < ? OR (score = ? AND user_id > ?) ORDER BY score DESC, user_id LIMIT ?";
+
+    static final RowMapper<SearchHit> HIT = (rs, rowNum) -> new SearchHit(
+            new User(rs.getLong("user_id"), rs.getString("name"), rs.getString("email")), rs.getDouble("score"));
+
+    private final JdbcTemplate jdbcTemplate;
+    private final float minSimilarity;
+
+    public TrigramUserSearch(JdbcTemplate jdbcTemplate, SearchProperties properties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.minSimilarity = properties.minSimilarity();
+    }
+
+    @Override
+    public List<SearchHit> search(String query, SearchCursor after, int limit) {
+        jdbcTemplate.queryForObject("SELECT set_config('pg_trgm.word_similarity_threshold', ?, true)",
+                String.class, Float.toString(minSimilarity));
+        if (after == null) {
+            return jdbcTemplate.query(FIRST_PAGE, HIT, query, query, query, query, limit);
+        }
+        return jdbcTemplate.query(NEXT_PAGE, HIT, query, query, query, query,
+                after.score(), after.score(), after.userId(), limit);
+    }
+}
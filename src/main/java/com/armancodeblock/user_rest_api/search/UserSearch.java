@@ -0,0 +1,10 @@
+package com.armancodeblock.user_rest_api.search;
+
+import java.util.List;
+
+// Ranked search over users.name and users.email: best matches first, ties by user id, so (score, userId)
+// of the last hit is a stable keyset cursor. after == null is the first page.
+public interface UserSearch {
+
+    List<SearchHit> search(String query, SearchCursor after, int limit);
+}
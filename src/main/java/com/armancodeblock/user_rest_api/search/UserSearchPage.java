@@ -0,0 +1,7 @@
+package com.armancodeblock.user_rest_api.search;
+
+import java.util.List;
+
+// next is the cursor for the following page, null on the last one
+public record UserSearchPage(List<SearchHit> hits, String next) {
+}
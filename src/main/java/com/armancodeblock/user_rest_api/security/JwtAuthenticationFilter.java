@@ -1,11 +1,16 @@
 package com.armancodeblock.user_rest_api.security;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -16,18 +21,58 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.concurrent.TimeUnit;
 
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private static final Logger logger = LoggerFactory.getLogger(JwtAuthenticationFilter.class);
-    
+
+    private static final String BEARER_PREFIX = "Bearer ";
+    // OncePerRequestFilter builds this name by string concatenation on every request
+    private static final String ALREADY_FILTERED_ATTRIBUTE = JwtAuthenticationFilter.class.getName() + ALREADY_FILTERED_SUFFIX;
+    private static final WebAuthenticationDetailsSource DETAILS_SOURCE = new WebAuthenticationDetailsSource();
+
+    private static final String OBSERVATION = "users.jwt.authenticate";
+    private static final String CONTEXTUAL_NAME = "jwt authenticate";
+
     private final JwtService jwtService;
     private final UserDetailsService userDetailsService;
+    // one observation (and span in the request trace) per authenticated request, and a users.jwt.filter{phase}
+    // timer per phase, so the dashboard can tell token verification from the user lookup
+    private final ObservationRegistry observationRegistry;
+    private final Timer parseTimer;
+    private final Timer verifyTimer;
+    private final Timer lookupTimer;
 
-    public JwtAuthenticationFilter(JwtService jwtService, UserDetailsService userDetailsService) {
+    public JwtAuthenticationFilter(JwtService jwtService, UserDetailsService userDetailsService,
+                                   ObservationRegistry observationRegistry, MeterRegistry meterRegistry) {
         this.jwtService = jwtService;
         this.userDetailsService = userDetailsService;
+        this.observationRegistry = observationRegistry;
+        this.parseTimer = phaseTimer("parse", meterRegistry);
+        this.verifyTimer = phaseTimer("verify", meterRegistry);
+        this.lookupTimer = phaseTimer("lookup", meterRegistry);
+    }
+
+    private static Timer phaseTimer(String phase, MeterRegistry meterRegistry) {
+        return Timer.builder("users.jwt.filter")
+                .description("Time spent in a JwtAuthenticationFilter phase")
+                .tag("phase", phase)
+                .register(meterRegistry);
+    }
+
+    // Requests without a bearer token (anonymous GETs on the public user routes) skip the filter entirely:
+    // no attribute bookkeeping, no security context lookup, no logging.
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        String authHeader = request.getHeader(HttpHeaders.AUTHORIZATION);
+        return authHeader == null || !authHeader.startsWith(BEARER_PREFIX);
+    }
+
+    @Override
+    protected String getAlreadyFilteredAttributeName() {
+        return ALREADY_FILTERED_ATTRIBUTE;
     }
 
     @Override
@@ -36,35 +81,57 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                                   @NonNull FilterChain filterChain) 
             throws ServletException, IOException {
         
-        String authHeader = request.getHeader("Authorization");
-        String token = null;
-        String username = null;
-        
-        // Check if Authorization header exists and starts with "Bearer "
-        if (authHeader != null && authHeader.startsWith("Bearer ")) {
-            token = authHeader.substring(7); // Remove "Bearer " prefix
-            try {
-                username = jwtService.getUsernameFromToken(token);
-                logger.info("JWT token found for user: {}", username);
-            } catch (Exception e) {
-                logger.error("Error parsing JWT token: {}", e.getMessage());
-            }
+        Observation observation = Observation.createNotStarted(OBSERVATION, observationRegistry)
+                .contextualName(CONTEXTUAL_NAME)
+                .start();
+        try (Observation.Scope scope = observation.openScope()) {
+            authenticate(request);
+        } catch (RuntimeException e) {
+            observation.error(e);
+            throw e;
+        } finally {
+            observation.stop();
         }
-        
+
+        filterChain.doFilter(request, response);
+    }
+
+    private void authenticate(HttpServletRequest request) {
+        // shouldNotFilter already checked the header, so it is a bearer token here
+        long start = System.nanoTime();
+        String token = request.getHeader(HttpHeaders.AUTHORIZATION).substring(BEARER_PREFIX.length());
+        long parsed = System.nanoTime();
+        parseTimer.record(parsed - start, TimeUnit.NANOSECONDS);
+        String username;
+        try {
+            username = jwtService.getUsernameFromToken(token);
+        } finally {
+            verifyTimer.record(System.nanoTime() - parsed, TimeUnit.NANOSECONDS);
+        }
+        if (username == null && logger.isDebugEnabled()) {
+            logger.debug("Rejected JWT token for {}", request.getRequestURI());
+        }
+
         // If username is extracted and no authentication exists in the context
         if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-            
+            long lookupStart = System.nanoTime();
+            UserDetails userDetails;
+            try {
+                userDetails = userDetailsService.loadUserByUsername(username);
+            } finally {
+                lookupTimer.record(System.nanoTime() - lookupStart, TimeUnit.NANOSECONDS);
+            }
+
             // Create authentication token
-            UsernamePasswordAuthenticationToken authToken = 
+            UsernamePasswordAuthenticationToken authToken =
                 new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
-            authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-            
+            authToken.setDetails(DETAILS_SOURCE.buildDetails(request));
+
             // Set authentication in security context
             SecurityContextHolder.getContext().setAuthentication(authToken);
-            logger.info("Authentication set for user: {}", username);
+            if (logger.isDebugEnabled()) {
+                logger.debug("Authentication set for user: {}", username);
+            }
         }
-        
-        filterChain.doFilter(request, response);
     }
 }
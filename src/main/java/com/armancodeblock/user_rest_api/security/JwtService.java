@@ -1,5 +1,6 @@
 package com.armancodeblock.user_rest_api.security;
 
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
 import jakarta.servlet.http.HttpServletRequest;
@@ -14,6 +15,8 @@ public class JwtService {
     private final long EXPIRATION_TIME = 86400000; // 1 day in milliseconds
     private final String PREFIX = "Bearer";
     private static final SecretKey key = Keys.hmacShaKeyFor("your-256-bit-secret-key-here-must-be-at-least-32-characters-long".getBytes());
+    // parsers are immutable and thread-safe, build it once instead of per request
+    private static final JwtParser parser = Jwts.parser().verifyWith(key).build();
 
     // Updated JWT builder methods to avoid deprecated methods
     public String getToken(String username) {
@@ -28,9 +31,7 @@ public class JwtService {
     public String getAuthUser(HttpServletRequest request) {
         String token = request.getHeader(HttpHeaders.AUTHORIZATION);
         if (token != null && token.startsWith(PREFIX + " ")) {
-            String user = Jwts.parser()
-                    .verifyWith(key) // Use verifyWith for signature verification
-                    .build()
+            String user = parser
                     .parseSignedClaims(token.replace(PREFIX + " ", "")) // Parse the token
                     .getPayload()
                     .getSubject(); // Extract the subject
@@ -42,9 +43,7 @@ public class JwtService {
     // Method to extract username from JWT token string
     public String getUsernameFromToken(String token) {
         try {
-            String user = Jwts.parser()
-                    .verifyWith(key) // Use verifyWith for signature verification
-                    .build()
+            String user = parser
                     .parseSignedClaims(token) // Parse the token
                     .getPayload()
                     .getSubject(); // Extract the subject
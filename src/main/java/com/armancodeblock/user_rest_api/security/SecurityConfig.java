@@ -1,5 +1,7 @@
 package com.armancodeblock.user_rest_api.security;
 
+import com.armancodeblock.user_rest_api.ratelimit.RateLimitFilter;
+import com.armancodeblock.user_rest_api.startup.WarmupProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -16,6 +18,9 @@ import org.springframework.security.provisioning.InMemoryUserDetailsManager;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
+import java.util.List;
+import java.util.UUID;
+
 // JWT (JSON Web Token)  method for representing claims securely between two parties.
 //Steps
 // 1. User login with username and password
@@ -34,23 +39,29 @@ public class SecurityConfig {
     }
 
     @Bean
-    public SecurityFilterChain filterChain(HttpSecurity http, JwtAuthenticationFilter jwtAuthenticationFilter) throws Exception {
+    public SecurityFilterChain filterChain(HttpSecurity http, JwtAuthenticationFilter jwtAuthenticationFilter,
+                                           RateLimitFilter rateLimitFilter) throws Exception {
         return http
                 .csrf(c -> c.disable())
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests(auth -> auth
                         .requestMatchers(HttpMethod.POST, "/api/v1/login").permitAll() // Ensure login is accessible
                         .requestMatchers(HttpMethod.GET, "/api/v1/users/**").permitAll()
+                        .requestMatchers(HttpMethod.POST, "/api/v1/users/batch").permitAll() // a read, body is just the ids
                         .requestMatchers(HttpMethod.POST, "/api/v1/users").hasAnyRole("ADMIN", "USER")
                         .requestMatchers(HttpMethod.PUT, "/api/v1/users/**").hasRole("ADMIN")
                         .requestMatchers(HttpMethod.DELETE, "/api/v1/users/**").hasRole("ADMIN")
+                        .requestMatchers("/actuator/health/**", "/actuator/prometheus").permitAll()
+                        .requestMatchers("/actuator/**").hasRole("ADMIN")
                         .anyRequest().authenticated()
                 )
                 .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class)
+                // after the JWT filter so authenticated callers are limited per principal instead of per IP
+                .addFilterAfter(rateLimitFilter, JwtAuthenticationFilter.class)
                 .build();
     }
     @Bean
-    public UserDetailsService userDetailsService(){
+    public UserDetailsService userDetailsService(WarmupProperties warmup){
         UserDetails admin = User.builder()
                 .username("admin")
                 .password(bCryptPasswordEncoder().encode("adminPass"))
@@ -63,7 +74,16 @@ public class SecurityConfig {
                 .roles("USER")
                 .build();
 
-        return  new InMemoryUserDetailsManager(admin, user);
+        InMemoryUserDetailsManager users = new InMemoryUserDetailsManager(admin, user);
+        // JitWarmup's loopback requests need a principal the JWT filter can look up, not one that can log in or write
+        if (!users.userExists(warmup.principal())) {
+            users.createUser(User.builder()
+                    .username(warmup.principal())
+                    .password(bCryptPasswordEncoder().encode(UUID.randomUUID().toString()))
+                    .authorities(List.of())
+                    .build());
+        }
+        return users;
     }
 
     @Bean
@@ -0,0 +1,7 @@
+package com.armancodeblock.user_rest_api.service;
+
+import com.armancodeblock.user_rest_api.enity.User;
+
+// one entry per requested id of a batch get, user is null when there is no such user
+public record UserLookup(Long userId, User user) {
+}
@@ -1,35 +1,102 @@
 package com.armancodeblock.user_rest_api.service;
 
+import com.armancodeblock.user_rest_api.audit.AuditEvent;
+import com.armancodeblock.user_rest_api.audit.AuditLog;
+import com.armancodeblock.user_rest_api.cache.UserCache;
+import com.armancodeblock.user_rest_api.changefeed.ChangeFeed;
+import com.armancodeblock.user_rest_api.concurrency.AdaptiveConcurrencyLimiter;
+import com.armancodeblock.user_rest_api.concurrency.Priority;
+import com.armancodeblock.user_rest_api.concurrency.SingleFlight;
 import com.armancodeblock.user_rest_api.enity.User;
+import com.armancodeblock.user_rest_api.enity.UserChange;
 import com.armancodeblock.user_rest_api.exception.ResourceNotFoundException;
+import com.armancodeblock.user_rest_api.readmodel.UserReadModel;
 import com.armancodeblock.user_rest_api.repository.UserRepository;
+import com.armancodeblock.user_rest_api.search.SearchCursor;
+import com.armancodeblock.user_rest_api.search.SearchHit;
+import com.armancodeblock.user_rest_api.search.UserSearch;
+import com.armancodeblock.user_rest_api.search.UserSearchPage;
+import io.micrometer.observation.annotation.Observed;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 @Service
+// one users.service timer and span per method (class/method tags), histogram and SLO buckets are set in application.properties
+@Observed(name = "users.service")
 public class UserService {
     @Autowired
     private  UserRepository userRepository;
+    // every repository call goes through the limiter so a slow database sheds load instead of queueing
+    @Autowired
+    private AdaptiveConcurrencyLimiter concurrencyLimiter;
+    // concurrent identical reads share one database call
+    @Autowired
+    private SingleFlight singleFlight;
+    // L1 (this replica) + L2 (shared) in front of findById, invalidated on every write
+    @Autowired
+    private UserCache userCache;
+    // who changed which user, written behind the request in batches
+    @Autowired
+    private AuditLog auditLog;
+    // journal row written in the same transaction as the change, read by /api/v1/users/changes
+    @Autowired
+    private ChangeFeed changeFeed;
+    // ranked fuzzy search, trigram indexes on Postgres
+    @Autowired
+    private UserSearch userSearch;
+    // optional compact id -> user store in front of the cache, for very large tables
+    @Autowired
+    private UserReadModel readModel;
+    // transactions are opened behind the limiter: reads inside the cache loaders, so cache hits and single-flight
+    // followers never hold a pool connection, and writes after admission, so a shed write never takes one
+    @Autowired
+    private PlatformTransactionManager transactionManager;
 
     public User createUser(User user){
-      return   userRepository.save(user);
+      return concurrencyLimiter.execute(Priority.WRITE, () -> inTransaction(() -> {
+          User created = userRepository.save(user);
+          changeFeed.append(UserChange.Action.CREATE, created.getUserId(), created);
+          readModel.written(created);
+          auditLog.record(AuditEvent.Action.CREATE, created.getUserId(), created);
+          return created;
+      }));
     }
 // get all users need pagination and sorting since it can return large data
+    // read-only transactions go to a replica when users.datasource.replicas are configured
     public Page<User> getAllUsers(Pageable pageable){
-     return    userRepository.findAll(pageable);
+     return    concurrencyLimiter.execute(readPriority(), () -> readOnly(() -> userRepository.findAll(pageable)));
     }
 
 
 
 
 public User getUserById(Long userId){
-  Optional<User> opUser =  userRepository.findById(userId);
+  User compact = readModel.get(userId);
+  if(compact != null){
+        return compact;
+  }
+  Optional<User> opUser =  userCache.get(userId,
+          () -> concurrencyLimiter.execute(readPriority(), () -> readOnly(() -> userRepository.findById(userId))));
   if(opUser.isPresent()){
+        readModel.offer(opUser.get());
         return opUser.get();
   }  else {
       throw  new ResourceNotFoundException("User not found with userId:"+ userId);
@@ -38,31 +105,114 @@ public User getUserById(Long userId){
 
 }
 
+// many ids in one go: read model, then cache, then a single IN query for the rest. Results follow the request
+// order, duplicates included, and ids that don't exist come back with a null user.
+public List<UserLookup> getUsersByIds(List<Long> userIds){
+    Map<Long, User> found = new HashMap<>();
+    Set<Long> missing = new LinkedHashSet<>();
+    for (Long userId : userIds) {
+        User compact = readModel.get(userId);
+        if (compact != null) {
+            found.put(userId, compact);
+        } else {
+            missing.add(userId);
+        }
+    }
+    if (!missing.isEmpty()) {
+        Map<Long, User> loaded = userCache.getAll(missing, ids -> concurrencyLimiter.execute(readPriority(),
+                () -> readOnly(() -> userRepository.findAllByUserIdIn(ids)).stream()
+                        .collect(Collectors.toMap(User::getUserId, Function.identity()))));
+        for (User user : loaded.values()) {
+            readModel.offer(user);
+        }
+        found.putAll(loaded);
+    }
+    List<UserLookup> results = new ArrayList<>(userIds.size());
+    for (Long userId : userIds) {
+        results.add(new UserLookup(userId, found.get(userId)));
+    }
+    return results;
+}
+
+// deleting an id that isn't there is a no-op: still 204, but no change row or audit event for a user that never existed
 public void deleteUserById(Long userId){
-        userRepository.deleteById(userId);
+        concurrencyLimiter.run(Priority.WRITE, () -> inTransaction(() -> {
+            if (userRepository.deleteByUserId(userId) == 0) {
+                return null;
+            }
+            changeFeed.append(UserChange.Action.DELETE, userId, null);
+            readModel.deleted(userId);
+            userCache.invalidate(userId);
+            auditLog.record(AuditEvent.Action.DELETE, userId, null);
+            return null;
+        }));
 }
 
 // update set name = "newName", email = "newEmail" where userId = 4;
 
+    // one read-write transaction, so the read-modify-write sees the primary and not a lagging replica
     public User updateUser(Long userId,User user){
-        Optional<User> opUser = userRepository.findById(userId);
-        if(opUser.isPresent()){
-            opUser.get().setName(user.getName());
-            opUser.get().setEmail(user.getEmail());
-          return   userRepository.save(opUser.get());
-        } else {
-            return  userRepository.save(user);
-           // throw new RuntimeException("User not found with userId: " + userId);
-        }
+        return concurrencyLimiter.execute(Priority.WRITE, () -> inTransaction(() -> {
+            Optional<User> opUser = userRepository.findById(userId);
+            User saved;
+            if(opUser.isPresent()){
+                opUser.get().setName(user.getName());
+                opUser.get().setEmail(user.getEmail());
+              saved =   userRepository.save(opUser.get());
+            } else {
+                saved =  userRepository.save(user);
+               // throw new RuntimeException("User not found with userId: " + userId);
+            }
+            changeFeed.append(UserChange.Action.UPDATE, saved.getUserId(), saved);
+            readModel.written(saved);
+            userCache.invalidate(userId);
+            auditLog.record(AuditEvent.Action.UPDATE, saved.getUserId(), saved);
+            return saved;
+        }));
 
     }
 
    public List<User> getAllUsersByNamePrefix(String prefix) {
-  return userRepository.findUserByNamePrefix(prefix);
+  return singleFlight.execute(new ByPrefix(prefix),
+          () -> concurrencyLimiter.execute(readPriority(), () -> readOnly(() -> userRepository.findUserByNamePrefix(prefix))));
    }
 
    public Page<User> getAllUserByNamePrefix(String prefix,Pageable pageable){
-        return userRepository.findByNameStartingWith(prefix, pageable);
+        return singleFlight.execute(new ByPrefixPage(prefix, pageable),
+                () -> concurrencyLimiter.execute(readPriority(),
+                        () -> readOnly(() -> userRepository.findByNameStartingWith(prefix, pageable))));
+   }
+
+   // one extra row tells whether there is a next page
+   public UserSearchPage searchUsers(String query, SearchCursor after, int limit){
+        List<SearchHit> hits = concurrencyLimiter.execute(readPriority(),
+                () -> readOnly(() -> userSearch.search(query, after, limit + 1)));
+        if (hits.size() <= limit) {
+            return new UserSearchPage(hits, null);
+        }
+        List<SearchHit> page = hits.subList(0, limit);
+        return new UserSearchPage(List.copyOf(page), SearchCursor.after(page.get(limit - 1)).encode());
    }
 
+    // joins the caller's transaction if there is one (group commit)
+    private <T> T inTransaction(Supplier<T> write) {
+        return new TransactionTemplate(transactionManager).execute(status -> write.get());
+    }
+
+    private <T> T readOnly(Supplier<T> query) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+        return transaction.execute(status -> query.get());
+    }
+
+    private static Priority readPriority() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        boolean authenticated = auth != null && auth.isAuthenticated() && !(auth instanceof AnonymousAuthenticationToken);
+        return authenticated ? Priority.AUTHENTICATED_READ : Priority.ANONYMOUS_READ;
+    }
+
+    // single-flight keys, one record type per query
+    private record ByPrefix(String prefix) {}
+    private record ByPrefixPage(String prefix, Pageable pageable) {}
+
 }
@@ -0,0 +1,18 @@
+package com.armancodeblock.user_rest_api.snapshot;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+// users.snapshot.* in application.properties
+@ConfigurationProperties(prefix = "users.snapshot")
+public record SnapshotProperties(
+        @DefaultValue("false") boolean enabled,
+        // local to the node (emptyDir / host path), not shared between replicas
+        @DefaultValue("data/user-snapshot.bin") Path file,
+        @DefaultValue("1m") Duration interval,
+        // an older snapshot is ignored, catching up would cost more than warming from traffic
+        @DefaultValue("1d") Duration maxAge) {
+}
@@ -0,0 +1,9 @@
+package com.armancodeblock.user_rest_api.snapshot;
+
+import com.armancodeblock.user_rest_api.readmodel.CompactUserStore;
+
+import java.time.Instant;
+
+// a loaded snapshot: the read model's arrays and the change feed head (seq) read just before they were copied
+public record UserSnapshot(long seq, Instant createdAt, CompactUserStore.Image image) {
+}
@@ -0,0 +1,121 @@
+package com.armancodeblock.user_rest_api.snapshot;
+
+import com.armancodeblock.user_rest_api.readmodel.CompactUserStore;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.zip.CRC32;
+
+// On-disk layout of the user snapshot, big endian:
+//
+//   header (56 bytes)  magic "USNP" | version u16 | reserved u16 | createdAt epoch millis i64 | seq i64
+//                      | crc32 of the sections i32 | size i32 | table length i32 | arena used i32 | abandoned i32
+//                      | name table length i32 | name count i32 | reserved i32
+//   sections           table i64 * table length | arena bytes * arena used | name table i32 * name table length
+//
+// The sections are CompactUserStore's arrays as they are (CompactUserStore.Image): writing is a bulk put of each
+// array into the mapped file, reading a bulk get of each out of the mapping into the arrays the store takes over.
+// No user is decoded or re-inserted on either side. The slot layout depends on the store's hash function, so a
+// change there, like any layout change, needs a new version; readers reject versions they don't know and the node
+// starts cold instead.
+public final class UserSnapshotFormat {
+
+    static final int MAGIC = 0x55534E50; // "USNP"
+    static final short VERSION = 2;
+    static final int HEADER_SIZE = 56;
+
+    private UserSnapshotFormat() {
+    }
+
+    // written to a temporary file first and moved into place, readers never see half a snapshot
+    public static void write(Path file, long seq, Instant createdAt, CompactUserStore.Image image) throws IOException {
+        long size = HEADER_SIZE + image.table().length * 8L + image.arenaUsed() + image.nameTable().length * 4L;
+        if (size > Integer.MAX_VALUE) {
+            throw new IOException("User store too large for a snapshot: " + size + " bytes");
+        }
+        Path parent = file.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path tmp = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+                int offset = HEADER_SIZE;
+                buffer.slice(offset, image.table().length * 8).asLongBuffer().put(image.table());
+                offset += image.table().length * 8;
+                buffer.put(offset, image.arena(), 0, image.arenaUsed());
+                offset += image.arenaUsed();
+                buffer.slice(offset, image.nameTable().length * 4).asIntBuffer().put(image.nameTable());
+                CRC32 crc = new CRC32();
+                crc.update(buffer.slice(HEADER_SIZE, (int) size - HEADER_SIZE));
+                buffer.putInt(0, MAGIC)
+                        .putShort(4, VERSION)
+                        .putShort(6, (short) 0)
+                        .putLong(8, createdAt.toEpochMilli())
+                        .putLong(16, seq)
+                        .putInt(24, (int) crc.getValue())
+                        .putInt(28, image.size())
+                        .putInt(32, image.table().length)
+                        .putInt(36, image.arenaUsed())
+                        .putInt(40, image.abandoned())
+                        .putInt(44, image.nameTable().length)
+                        .putInt(48, image.nameCount())
+                        .putInt(52, 0);
+                buffer.force();
+            }
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    // throws IOException for anything that isn't a complete snapshot of a known version
+    public static UserSnapshot read(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_SIZE || size > Integer.MAX_VALUE) {
+                throw new IOException("Not a user snapshot, size " + size);
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            if (buffer.getInt(0) != MAGIC) {
+                throw new IOException("Not a user snapshot, bad magic");
+            }
+            short version = buffer.getShort(4);
+            if (version != VERSION) {
+                throw new IOException("Unsupported user snapshot version " + version);
+            }
+            Instant createdAt = Instant.ofEpochMilli(buffer.getLong(8));
+            long seq = buffer.getLong(16);
+            int tableLength = buffer.getInt(32);
+            int arenaUsed = buffer.getInt(36);
+            int nameTableLength = buffer.getInt(44);
+            if (tableLength < 0 || arenaUsed < 0 || nameTableLength < 0
+                    || HEADER_SIZE + tableLength * 8L + arenaUsed + nameTableLength * 4L != size) {
+                throw new IOException("Truncated user snapshot");
+            }
+            CRC32 crc = new CRC32();
+            crc.update(buffer.slice(HEADER_SIZE, (int) size - HEADER_SIZE));
+            if ((int) crc.getValue() != buffer.getInt(24)) {
+                throw new IOException("User snapshot checksum mismatch");
+            }
+            long[] table = new long[tableLength];
+            // room for the writes after startup, like a store that grew to this size
+            byte[] arena = new byte[Math.max(1024, arenaUsed + arenaUsed / 2)];
+            int[] nameTable = new int[nameTableLength];
+            int offset = HEADER_SIZE;
+            buffer.slice(offset, tableLength * 8).asLongBuffer().get(table);
+            offset += tableLength * 8;
+            buffer.get(offset, arena, 0, arenaUsed);
+            offset += arenaUsed;
+            buffer.slice(offset, nameTableLength * 4).asIntBuffer().get(nameTable);
+            CompactUserStore.Image image = new CompactUserStore.Image(table, buffer.getInt(28), arena, arenaUsed,
+                    buffer.getInt(40), nameTable, buffer.getInt(48));
+            return new UserSnapshot(seq, createdAt, image);
+        }
+    }
+}
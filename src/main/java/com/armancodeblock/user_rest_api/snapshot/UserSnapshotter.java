@@ -0,0 +1,147 @@
+package com.armancodeblock.user_rest_api.snapshot;
+
+import com.armancodeblock.user_rest_api.enity.UserChange;
+import com.armancodeblock.user_rest_api.readmodel.CompactUserStore;
+import com.armancodeblock.user_rest_api.readmodel.UserReadModel;
+import com.armancodeblock.user_rest_api.repository.UserChangeRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.time.Instant;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Keeps a node's read model warm across restarts (users.snapshot.enabled, needs users.read-model.enabled).
+//
+// Every interval, and on shutdown, the read model's CompactUserStore is written to a local file (UserSnapshotFormat)
+// together with the change feed head read just before copying it. On startup, run() maps that file, hands its arrays
+// to the store and replays the user_changes journal from the snapshot's seq into it. Only the local read model is
+// filled: the shared L2 is other replicas' too and gets nothing from a possibly stale file. Only then does the node
+// report ready:
+// Spring Boot switches readiness to ACCEPTING_TRAFFIC after the application runners have finished, so
+// /actuator/health/readiness stays OUT_OF_SERVICE during the warm-up and the load balancer keeps traffic away.
+//
+// UserReadModel.restore also replays the rows up to the change feed's gapTimeout older than the snapshot. A snapshot
+// that is too old, unreadable, of another version, older than the retained journal or ahead of the database is ignored and the node starts cold.
+// Runs before the other application runners, a restored read model makes UserReadModel's preload unnecessary.
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class UserSnapshotter implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserSnapshotter.class);
+
+    private final UserReadModel readModel;
+    private final UserChangeRepository changeRepository;
+    private final SnapshotProperties properties;
+    private final Timer writeTimer;
+    private final Timer restoreTimer;
+    private final Counter restored;
+    private ScheduledExecutorService scheduler;
+
+    public UserSnapshotter(UserReadModel readModel, UserChangeRepository changeRepository, SnapshotProperties properties,
+                           MeterRegistry meterRegistry) {
+        this.readModel = readModel;
+        this.changeRepository = changeRepository;
+        this.properties = properties;
+        this.writeTimer = Timer.builder("users.snapshot.write")
+                .description("Time to write the user snapshot")
+                .register(meterRegistry);
+        this.restoreTimer = Timer.builder("users.snapshot.restore")
+                .description("Time to load the user snapshot and catch up with the change feed")
+                .register(meterRegistry);
+        this.restored = Counter.builder("users.snapshot.restored")
+                .description("Users in the read model after restoring the snapshot at startup")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!properties.enabled()) {
+            return;
+        }
+        if (!readModel.isEnabled()) {
+            throw new IllegalStateException("users.snapshot.enabled needs users.read-model.enabled, it snapshots the read model");
+        }
+        restore();
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "user-snapshot");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = properties.interval().toMillis();
+        scheduler.scheduleWithFixedDelay(this::write, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    // the number of users in the read model afterwards, 0 for a cold start
+    int restore() {
+        if (!Files.exists(properties.file())) {
+            logger.info("No user snapshot at {}, starting cold", properties.file());
+            return 0;
+        }
+        long start = System.nanoTime();
+        try {
+            UserSnapshot snapshot = UserSnapshotFormat.read(properties.file());
+            if (snapshot.createdAt().isBefore(Instant.now().minus(properties.maxAge()))) {
+                logger.info("User snapshot from {} is older than {}, starting cold", snapshot.createdAt(), properties.maxAge());
+                return 0;
+            }
+            Long head = changeRepository.findMaxSeq();
+            if (head == null ? snapshot.seq() > 0 : head < snapshot.seq()) {
+                // restored backup or another database, the snapshot describes a future this one hasn't seen
+                logger.info("User snapshot at seq {} is ahead of the change feed ({}), starting cold", snapshot.seq(), head);
+                return 0;
+            }
+            UserChange oldest = changeRepository.findFirstByOrderBySeqAsc();
+            if (oldest != null && oldest.getSeq() > snapshot.seq() + 1) {
+                logger.info("User snapshot at seq {} is older than the retained changes (oldest {}), starting cold",
+                        snapshot.seq(), oldest.getSeq());
+                return 0;
+            }
+            int replayed = readModel.restore(snapshot.image(), snapshot.seq(), snapshot.createdAt());
+            int users = readModel.size();
+            restored.increment(users);
+            logger.info("Restored {} users from the snapshot of {} (seq {}), {} changes replayed",
+                    users, snapshot.createdAt(), snapshot.seq(), replayed);
+            return users;
+        } catch (IOException | RuntimeException e) {
+            logger.warn("User snapshot {} not restored, starting cold: {}", properties.file(), e.toString());
+            return 0;
+        } finally {
+            restoreTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    void write() {
+        long start = System.nanoTime();
+        try {
+            Long head = changeRepository.findMaxSeq();
+            CompactUserStore.Image image = readModel.image();
+            UserSnapshotFormat.write(properties.file(), head == null ? 0 : head, Instant.now(), image);
+            writeTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            logger.debug("Wrote {} users to the snapshot at {}", image.size(), properties.file());
+        } catch (IOException | RuntimeException e) {
+            logger.warn("User snapshot not written: {}", e.toString());
+        }
+    }
+
+    // the last snapshot is the freshest one, before the database connections go away
+    @PreDestroy
+    public void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            write();
+        }
+    }
+}
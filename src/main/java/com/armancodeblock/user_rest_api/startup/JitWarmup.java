@@ -0,0 +1,217 @@
+package com.armancodeblock.user_rest_api.startup;
+
+import com.armancodeblock.user_rest_api.enity.User;
+import com.armancodeblock.user_rest_api.repository.UserRepository;
+import com.armancodeblock.user_rest_api.security.JwtService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.env.Environment;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.lang.management.CompilationMXBean;
+import java.lang.management.ManagementFactory;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+
+// Runs the request hot paths before the node reports ready (users.warmup.enabled), so the first real requests
+// don't run in the interpreter: token sign/verify, the JSON (de)serialization of users and pages, the repository
+// queries and, through loopback HTTP requests with a bearer token, the filter chain, controller and message
+// converters together. Readiness is gated the same way as UserSnapshotter's restore: Spring Boot switches to
+// ACCEPTING_TRAFFIC only after the application runners have finished.
+//
+// It goes in rounds and stops once, after minRounds, a round costs the JIT compilers less than settleCompileTime
+// (the compiled code has caught up with what the rounds execute), or when maxDuration is up.
+// Nothing is written: the queries read the first page of existing users in short read-only transactions, and the
+// loopback GETs ask for those same users, so they take the 200 path and add nothing to users.errors. With an empty
+// table only the page route is requested over HTTP and the serializers get a user that is never stored.
+// The bearer token is issued for users.warmup.principal, by default a user without roles that SecurityConfig adds
+// for it, so a leaked warm-up token can't write.
+// Metric: users.warmup.duration{outcome=settled|budget|failed}.
+@Component
+public class JitWarmup implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(JitWarmup.class);
+    private static final int SAMPLE_SIZE = 20;
+    private static final String PAGE_PATH = "/api/v1/users?page=0&size=" + SAMPLE_SIZE;
+    // for names too short to take a prefix from, rows that predate the validation or were written around it
+    private static final String FALLBACK_PREFIX = "Wa";
+
+    private final WarmupProperties properties;
+    private final JwtService jwtService;
+    private final ObjectMapper objectMapper;
+    private final UserRepository userRepository;
+    private final TransactionTemplate readOnly;
+    private final Environment environment;
+    private final MeterRegistry meterRegistry;
+    private final CompilationMXBean compilation = ManagementFactory.getCompilationMXBean();
+
+    public JitWarmup(WarmupProperties properties, JwtService jwtService, ObjectMapper objectMapper,
+                     UserRepository userRepository, PlatformTransactionManager transactionManager,
+                     Environment environment, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.jwtService = jwtService;
+        this.objectMapper = objectMapper;
+        this.userRepository = userRepository;
+        this.readOnly = new TransactionTemplate(transactionManager);
+        this.readOnly.setReadOnly(true);
+        this.environment = environment;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (properties.enabled()) {
+            warmUp();
+        }
+    }
+
+    // the outcome tag of the recorded duration
+    String warmUp() {
+        long start = System.nanoTime();
+        long deadline = start + properties.maxDuration().toNanos();
+        long compileStart = compileTimeMillis();
+        Rounds rounds = new Rounds();
+        String outcome;
+        try {
+            outcome = runRounds(deadline, rounds);
+        } catch (RuntimeException e) {
+            logger.warn("Warm-up failed after {} rounds, accepting traffic anyway", rounds.count, e);
+            outcome = "failed";
+        }
+        long elapsed = System.nanoTime() - start;
+        Timer.builder("users.warmup.duration")
+                .description("Time spent warming up the hot paths before reporting ready")
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .record(Duration.ofNanos(elapsed));
+        logger.info("Warm-up {} after {} rounds in {} ms, {} ms of JIT compilation", outcome, rounds.count,
+                elapsed / 1_000_000, compileTimeMillis() - compileStart);
+        return outcome;
+    }
+
+    private String runRounds(long deadline, Rounds rounds) {
+        List<User> stored = readOnly.execute(status ->
+                userRepository.findAll(PageRequest.of(0, SAMPLE_SIZE)).getContent());
+        Sample sample = stored.isEmpty()
+                ? new Sample(List.of(new User(0L, "Warm Up", "warmup@example.invalid")), false)
+                : new Sample(stored, true);
+        Loopback loopback = Loopback.of(environment, jwtService.getToken(properties.principal()));
+        while (true) {
+            long compileBefore = compileTimeMillis();
+            round(sample, loopback);
+            rounds.count++;
+            long compiled = compileTimeMillis() - compileBefore;
+            if (rounds.count >= properties.minRounds() && compiled < properties.settleCompileTime().toMillis()) {
+                return "settled";
+            }
+            if (System.nanoTime() - deadline >= 0) {
+                return "budget";
+            }
+        }
+    }
+
+    private void round(Sample sample, Loopback loopback) {
+        int iterations = properties.iterationsPerRound();
+        List<User> users = sample.users();
+        Page<User> page = new PageImpl<>(users, PageRequest.of(0, SAMPLE_SIZE), users.size());
+        try {
+            for (int i = 0; i < iterations; i++) {
+                String token = jwtService.getToken(properties.principal());
+                jwtService.getUsernameFromToken(token);
+
+                User user = users.get(i % users.size());
+                byte[] json = objectMapper.writeValueAsBytes(user);
+                objectMapper.readValue(json, User.class);
+                if (i % 10 == 0) {
+                    objectMapper.writeValueAsBytes(page);
+                }
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Warm-up serialization failed", e);
+        }
+
+        // one short read-only transaction per batch of queries, nothing held across the round
+        List<Long> ids = users.stream().map(User::getUserId).toList();
+        String prefix = prefix(users.get(0).getName());
+        for (int i = 0; i < iterations / 10; i++) {
+            Long userId = ids.get(i % ids.size());
+            readOnly.executeWithoutResult(status -> {
+                userRepository.findById(userId);
+                userRepository.findAllByUserIdIn(ids);
+                userRepository.findAll(PageRequest.of(0, SAMPLE_SIZE));
+                userRepository.findByNameStartingWith(prefix, PageRequest.of(0, SAMPLE_SIZE));
+            });
+        }
+
+        if (loopback != null) {
+            for (int i = 0; i < iterations / 10; i++) {
+                loopback.get(PAGE_PATH);
+                if (sample.stored()) {
+                    loopback.get("/api/v1/users/" + ids.get(i % ids.size()));
+                }
+            }
+        }
+    }
+
+    private static String prefix(String name) {
+        return name == null || name.length() < 2 ? FALLBACK_PREFIX : name.substring(0, 2);
+    }
+
+    private long compileTimeMillis() {
+        return compilation != null && compilation.isCompilationTimeMonitoringSupported()
+                ? compilation.getTotalCompilationTime() : 0;
+    }
+
+    private static final class Rounds {
+        int count;
+    }
+
+    // stored: the users exist in the table, so GET /api/v1/users/{id} finds them
+    private record Sample(List<User> users, boolean stored) {
+    }
+
+    // requests to this node's own port, through the whole filter chain; null without a web server (MOCK tests)
+    private record Loopback(HttpClient client, String base, String authorization) {
+
+        static Loopback of(Environment environment, String token) {
+            Integer port = environment.getProperty("local.server.port", Integer.class);
+            if (port == null || port <= 0) {
+                return null;
+            }
+            return new Loopback(HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(2)).build(),
+                    "http://localhost:" + port, "Bearer " + token);
+        }
+
+        void get(String path) {
+            HttpRequest request = HttpRequest.newBuilder(URI.create(base + path))
+                    .header(HttpHeaders.AUTHORIZATION, authorization)
+                    .header(HttpHeaders.ACCEPT, "application/json")
+                    .timeout(Duration.ofSeconds(5))
+                    .build();
+            try {
+                client.send(request, HttpResponse.BodyHandlers.discarding());
+            } catch (IOException e) {
+                throw new IllegalStateException("Warm-up request to " + path + " failed", e);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Warm-up interrupted", e);
+            }
+        }
+    }
+}
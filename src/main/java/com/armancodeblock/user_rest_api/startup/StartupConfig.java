@@ -0,0 +1,25 @@
+package com.armancodeblock.user_rest_api.startup;
+
+import com.armancodeblock.user_rest_api.audit.AuditLog;
+import com.armancodeblock.user_rest_api.cache.UserCache;
+import com.armancodeblock.user_rest_api.changefeed.ChangeFeed;
+import com.armancodeblock.user_rest_api.concurrency.AdaptiveConcurrencyLimiter;
+import com.armancodeblock.user_rest_api.controller.UserController;
+import com.armancodeblock.user_rest_api.security.JwtService;
+import com.armancodeblock.user_rest_api.service.UserService;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// With spring.main.lazy-initialization=true (USERS_LAZY_INIT) beans are created on first use, which cuts startup
+// time but moves the cost into the first requests. The beans on the request path, and the ones that run
+// background threads, stay eager so the first GET /api/v1/users/{id} doesn't pay for them.
+@Configuration
+public class StartupConfig {
+
+    @Bean
+    static LazyInitializationExcludeFilter hotPathBeans() {
+        return LazyInitializationExcludeFilter.forBeanTypes(UserController.class, UserService.class, UserCache.class,
+                AdaptiveConcurrencyLimiter.class, JwtService.class, ChangeFeed.class, AuditLog.class);
+    }
+}
@@ -0,0 +1,23 @@
+package com.armancodeblock.user_rest_api.startup;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+// users.warmup.* in application.properties
+@ConfigurationProperties(prefix = "users.warmup")
+public record WarmupProperties(
+        @DefaultValue("true") boolean enabled,
+        // at least this many rounds, past the C2 invocation thresholds for the per-request methods
+        @DefaultValue("20") int minRounds,
+        // token sign/verify and (de)serializations per round, a tenth of it as loopback HTTP requests
+        @DefaultValue("200") int iterationsPerRound,
+        // after minRounds, a round that spent less than this in the JIT compilers means the hot paths are compiled
+        @DefaultValue("10ms") Duration settleCompileTime,
+        // readiness comes up after this at the latest, settled or not
+        @DefaultValue("30s") Duration maxDuration,
+        // the bearer token on the loopback requests is issued for this user. SecurityConfig adds it without roles or
+        // a usable password if it isn't one of the configured users, so the token can't do more than the reads
+        @DefaultValue("warmup") String principal) {
+}
@@ -0,0 +1,40 @@
+package com.armancodeblock.user_rest_api.tracing;
+
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+// Writes finished spans as one log line each to the "tracing.spans" logger, a local stand-in for
+// a collector when no OTLP endpoint is configured. Route that logger to its own file to keep them apart.
+public class Slf4jSpanExporter implements SpanExporter {
+
+    private static final Logger logger = LoggerFactory.getLogger("tracing.spans");
+
+    @Override
+    public CompletableResultCode export(Collection<SpanData> spans) {
+        if (logger.isInfoEnabled()) {
+            for (SpanData span : spans) {
+                logger.info("trace={} span={} parent={} name=\"{}\" kind={} duration_us={} status={} attributes={}",
+                        span.getTraceId(), span.getSpanId(), span.getParentSpanId(), span.getName(), span.getKind(),
+                        TimeUnit.NANOSECONDS.toMicros(span.getEndEpochNanos() - span.getStartEpochNanos()),
+                        span.getStatus().getStatusCode(), span.getAttributes().asMap());
+            }
+        }
+        return CompletableResultCode.ofSuccess();
+    }
+
+    @Override
+    public CompletableResultCode flush() {
+        return CompletableResultCode.ofSuccess();
+    }
+
+    @Override
+    public CompletableResultCode shutdown() {
+        return CompletableResultCode.ofSuccess();
+    }
+}
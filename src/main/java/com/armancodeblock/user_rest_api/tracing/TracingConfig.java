@@ -0,0 +1,19 @@
+package com.armancodeblock.user_rest_api.tracing;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// Spans come from Spring's observations: the HTTP server span (controller), Spring Security's filter chain,
+// JwtAuthenticationFilter phases, @Observed on UserService and one span per SQL statement (datasource-micrometer).
+// W3C traceparent propagation and the sampling rate are configured in application.properties.
+@Configuration
+public class TracingConfig {
+
+    // set management.otlp.tracing.endpoint to export to a collector instead (or in addition)
+    @Bean
+    @ConditionalOnProperty(name = "users.tracing.log-spans", havingValue = "true")
+    public Slf4jSpanExporter slf4jSpanExporter() {
+        return new Slf4jSpanExporter();
+    }
+}
@@ -0,0 +1,79 @@
+package com.armancodeblock.user_rest_api.web;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.http.server.ServletServerHttpResponse;
+import org.springframework.lang.NonNull;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Adds Cache-Control and Vary: Accept, Accept-Encoding to successful GET responses of the routes listed in CacheControlProperties.
+// Runs just before the body is written, when the final status is known, so errors are never marked cacheable.
+// Spring Security only adds its no-cache headers when the response has no Cache-Control yet.
+@ControllerAdvice
+public class CacheControlAdvice implements ResponseBodyAdvice<Object> {
+
+    // the body depends on Accept (JSON, CBOR, Smile) and compressed and plain variants must be cached separately
+    private static final List<String> VARY = List.of(HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING);
+
+    private final Map<String, String> cacheControlByRoute = new HashMap<>();
+
+    public CacheControlAdvice(CacheControlProperties properties) {
+        properties.maxAge().forEach((route, maxAge) ->
+                cacheControlByRoute.put(route, CacheControl.maxAge(maxAge).cachePublic().getHeaderValue()));
+    }
+
+    @Override
+    public boolean supports(@NonNull MethodParameter returnType,
+                            @NonNull Class<? extends HttpMessageConverter<?>> converterType) {
+        return !cacheControlByRoute.isEmpty();
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, @NonNull MethodParameter returnType, @NonNull MediaType selectedContentType,
+                                  @NonNull Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  @NonNull ServerHttpRequest request, @NonNull ServerHttpResponse response) {
+        if (request.getMethod() != HttpMethod.GET
+                || !(request instanceof ServletServerHttpRequest servletRequest)
+                || !(response instanceof ServletServerHttpResponse servletResponse)
+                || servletResponse.getServletResponse().getStatus() != 200) {
+            return body;
+        }
+        HttpServletRequest httpRequest = servletRequest.getServletRequest();
+        Object route = httpRequest.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String cacheControl = route == null ? null : cacheControlByRoute.get(route.toString());
+        if (cacheControl != null && !response.getHeaders().containsKey(HttpHeaders.CACHE_CONTROL)) {
+            response.getHeaders().set(HttpHeaders.CACHE_CONTROL, cacheControl);
+            addVary(response.getHeaders(), servletResponse.getServletResponse());
+        }
+        return body;
+    }
+
+    // Adds to whatever Vary is already there (CORS, filters) instead of replacing it. The merged value is written
+    // straight to the servlet response: HttpHeaders would add a second Vary line next to the existing one.
+    private static void addVary(HttpHeaders headers, HttpServletResponse servletResponse) {
+        List<String> vary = new ArrayList<>(headers.getVary());
+        for (String header : VARY) {
+            if (vary.stream().noneMatch(header::equalsIgnoreCase)) {
+                vary.add(header);
+            }
+        }
+        headers.remove(HttpHeaders.VARY);
+        servletResponse.setHeader(HttpHeaders.VARY, String.join(", ", vary));
+    }
+}
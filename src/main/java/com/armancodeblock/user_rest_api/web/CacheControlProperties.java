@@ -0,0 +1,16 @@
+package com.armancodeblock.user_rest_api.web;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.Map;
+
+// users.http.cache.max-age[<route template>]=<duration>, e.g. users.http.cache.max-age[/api/v1/users/{userId}]=30s
+// Keys are the @GetMapping route templates, not concrete paths.
+@ConfigurationProperties(prefix = "users.http.cache")
+public record CacheControlProperties(Map<String, Duration> maxAge) {
+
+    public CacheControlProperties {
+        maxAge = maxAge == null ? Map.of() : Map.copyOf(maxAge);
+    }
+}
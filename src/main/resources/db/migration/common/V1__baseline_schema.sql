@@ -0,0 +1,36 @@
+-- Schema as hibernate ddl-auto=update left it. IF NOT EXISTS so databases created that way are adopted
+-- (baseline-version=0) instead of failing.
+
+CREATE TABLE IF NOT EXISTS users (
+    user_id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name    VARCHAR(255),
+    email   VARCHAR(255)
+);
+
+CREATE TABLE IF NOT EXISTS auth_users (
+    id       BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    username VARCHAR(255) NOT NULL UNIQUE,
+    password VARCHAR(255) NOT NULL,
+    role     VARCHAR(255) NOT NULL
+);
+
+-- change feed journal, seq is the consumer cursor
+CREATE TABLE IF NOT EXISTS user_changes (
+    seq        BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    user_id    BIGINT NOT NULL,
+    action     VARCHAR(16) NOT NULL,
+    name       VARCHAR(255),
+    email      VARCHAR(255),
+    changed_at TIMESTAMP(6) WITH TIME ZONE NOT NULL
+);
+
+-- written by JdbcAuditSink, not a JPA entity
+CREATE TABLE IF NOT EXISTS user_audit (
+    id          BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    occurred_at TIMESTAMP WITH TIME ZONE NOT NULL,
+    principal   VARCHAR(255),
+    action      VARCHAR(16) NOT NULL,
+    user_id     BIGINT,
+    name        VARCHAR(255),
+    email       VARCHAR(255)
+);
@@ -0,0 +1,2 @@
+-- name LIKE 'prefix%' (/api/v1/users/search), see postgresql/V2 for the production version
+CREATE INDEX IF NOT EXISTS idx_users_name_prefix ON users (name);
@@ -0,0 +1,2 @@
+-- change feed retention purge, see postgresql/V3
+CREATE INDEX IF NOT EXISTS idx_user_changes_changed_at ON user_changes (changed_at);
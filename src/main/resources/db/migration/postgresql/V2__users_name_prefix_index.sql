@@ -0,0 +1,6 @@
+-- name LIKE 'prefix%' (/api/v1/users/search). varchar_pattern_ops makes the index usable for LIKE prefixes
+-- whatever the database collation is.
+-- CONCURRENTLY doesn't block writes while the index builds, it can't run in a transaction (see .conf).
+-- A failed concurrent build leaves an INVALID index behind, the drop makes the retry start clean.
+DROP INDEX CONCURRENTLY IF EXISTS idx_users_name_prefix;
+CREATE INDEX CONCURRENTLY idx_users_name_prefix ON users (name varchar_pattern_ops);
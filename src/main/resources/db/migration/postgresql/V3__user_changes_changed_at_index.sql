@@ -0,0 +1,3 @@
+-- change feed retention purge: DELETE FROM user_changes WHERE changed_at < ?
+DROP INDEX CONCURRENTLY IF EXISTS idx_user_changes_changed_at;
+CREATE INDEX CONCURRENTLY idx_user_changes_changed_at ON user_changes (changed_at);
@@ -0,0 +1,7 @@
+-- ranked search (/api/v1/users/search/ranked): `q <% name` / `q <% email` use these GIN trigram indexes.
+-- Concurrent builds like V2, see V2 for why the drop comes first.
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+DROP INDEX CONCURRENTLY IF EXISTS idx_users_name_trgm;
+CREATE INDEX CONCURRENTLY idx_users_name_trgm ON users USING gin (name gin_trgm_ops);
+DROP INDEX CONCURRENTLY IF EXISTS idx_users_email_trgm;
+CREATE INDEX CONCURRENTLY idx_users_email_trgm ON users USING gin (email gin_trgm_ops);
@@ -0,0 +1,146 @@
+package com.armancodeblock.user_rest_api.audit;
+
+import com.armancodeblock.user_rest_api.enity.User;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AuditLogTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<List<AuditEvent>> batches = Collections.synchronizedList(new ArrayList<>());
+    private AuditLog auditLog;
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        if (auditLog != null) {
+            auditLog.stop();
+        }
+    }
+
+    private AuditLog auditLog(AuditProperties.Durability durability, int capacity, AuditSink sink) {
+        auditLog = new AuditLog(sink, new AuditProperties(true, AuditProperties.Sink.JDBC, Path.of("unused"),
+                durability, capacity, 100, Duration.ofMillis(500)), meterRegistry);
+        return auditLog;
+    }
+
+    @Test
+    void events_ShouldBeWrittenInBatchesBehindTheCaller() throws Exception {
+        // Given a sink that is slow while the first batch is written
+        CountDownLatch release = new CountDownLatch(1);
+        AuditLog log = auditLog(AuditProperties.Durability.ASYNC, 1000, batch -> {
+            release.await(2, TimeUnit.SECONDS);
+            batches.add(List.copyOf(batch));
+        });
+
+        // When 50 mutations are recorded
+        for (long i = 1; i <= 50; i++) {
+            log.record(AuditEvent.Action.CREATE, i, new User("User " + i, "user" + i + "@example.com"));
+        }
+        release.countDown();
+
+        // Then they all land, most of them in one batch, in order
+        waitUntil(() -> written() == 50);
+        assertThat(batches.size()).isLessThanOrEqualTo(2);
+        assertThat(batches.stream().flatMap(List::stream).map(AuditEvent::userId).toList())
+                .isSortedAccordingTo(Long::compare);
+    }
+
+    @Test
+    void sync_ShouldReturnOnlyAfterTheEventIsPersisted() {
+        // Given
+        AuditLog log = auditLog(AuditProperties.Durability.SYNC, 1000, batch -> batches.add(List.copyOf(batch)));
+
+        // When
+        log.record(AuditEvent.Action.DELETE, 7L, null);
+
+        // Then
+        assertThat(batches).hasSize(1);
+        assertThat(batches.get(0).get(0).action()).isEqualTo(AuditEvent.Action.DELETE);
+    }
+
+    @Test
+    void syncBatched_ShouldWaitOnceForAllEventsOfTheBatch() {
+        // Given a sink that takes a while per batch
+        AuditLog log = auditLog(AuditProperties.Durability.SYNC, 1000, batch -> {
+            Thread.sleep(50);
+            batches.add(List.copyOf(batch));
+        });
+
+        // When 20 mutations are recorded in one batch
+        log.batched(() -> {
+            for (long i = 1; i <= 20; i++) {
+                log.record(AuditEvent.Action.CREATE, i, null);
+            }
+        });
+
+        // Then none of them waited alone, and all are persisted when batched returns
+        assertThat(written()).isEqualTo(20);
+        assertThat(batches.size()).isLessThanOrEqualTo(2);
+    }
+
+    @Test
+    void async_ShouldDropInsteadOfBlockingWhenTheQueueIsFull() throws Exception {
+        // Given a stuck sink and room for two queued events
+        CountDownLatch release = new CountDownLatch(1);
+        AuditLog log = auditLog(AuditProperties.Durability.ASYNC, 2, batch -> release.await(5, TimeUnit.SECONDS));
+        log.record(AuditEvent.Action.CREATE, 1L, null);
+        waitUntil(() -> log.lagSeconds() == 0);
+
+        // When more events arrive than fit
+        long start = System.nanoTime();
+        for (long i = 2; i <= 10; i++) {
+            log.record(AuditEvent.Action.CREATE, i, null);
+        }
+
+        // Then callers were not held up and the overflow is counted
+        assertThat(System.nanoTime() - start).isLessThan(TimeUnit.MILLISECONDS.toNanos(200));
+        assertThat(meterRegistry.get("users.audit.events").tag("result", "dropped").counter().count()).isEqualTo(7);
+        release.countDown();
+    }
+
+    @Test
+    void failingSink_ShouldBeRetriedWithoutLosingEvents() throws Exception {
+        // Given a sink that fails twice
+        AtomicInteger attempts = new AtomicInteger();
+        AuditLog log = auditLog(AuditProperties.Durability.ASYNC, 1000, batch -> {
+            if (attempts.incrementAndGet() <= 2) {
+                throw new IllegalStateException("database down");
+            }
+            batches.add(List.copyOf(batch));
+        });
+
+        // When
+        log.record(AuditEvent.Action.UPDATE, 3L, new User("John Doe", "john@spring.com"));
+
+        // Then
+        waitUntil(() -> written() == 1);
+        assertThat(batches.get(0).get(0).name()).isEqualTo("John Doe");
+    }
+
+    private double written() {
+        return meterRegistry.get("users.audit.events").tag("result", "written").counter().count();
+    }
+
+    private static void waitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) {
+                throw new AssertionError("condition not met within 5s");
+            }
+            Thread.sleep(5);
+        }
+    }
+}
@@ -0,0 +1,217 @@
+package com.armancodeblock.user_rest_api.cache;
+
+import com.armancodeblock.user_rest_api.concurrency.SingleFlight;
+import com.armancodeblock.user_rest_api.enity.User;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UserCacheTest {
+
+    // two replicas sharing one L2 and one invalidation bus
+    private InMemorySharedCache l2;
+    private SimpleMeterRegistry meterRegistry;
+    private UserCache nodeA;
+    private UserCache nodeB;
+    private AtomicInteger dbLoads;
+
+    @BeforeEach
+    void setUp() {
+        l2 = new InMemorySharedCache();
+        InMemoryCacheInvalidationBus bus = new InMemoryCacheInvalidationBus();
+        meterRegistry = new SimpleMeterRegistry();
+        nodeA = replica(bus, meterRegistry);
+        nodeB = replica(bus, new SimpleMeterRegistry());
+        dbLoads = new AtomicInteger();
+    }
+
+    private UserCache replica(CacheInvalidationBus bus, SimpleMeterRegistry registry) {
+        return new UserCache(new UserCacheProperties(true, 100, Duration.ofSeconds(30), Duration.ofMinutes(5),
+                Duration.ofSeconds(10)),
+                l2, bus, new SingleFlight(Duration.ofSeconds(2), registry), new ObjectMapper(), registry);
+    }
+
+    private Supplier<Optional<User>> database(String name) {
+        return () -> {
+            dbLoads.incrementAndGet();
+            return Optional.of(new User(name, "john@spring.com"));
+        };
+    }
+
+    @Test
+    void repeatedReads_ShouldBeServedFromL1() {
+        // When
+        nodeA.get(1L, database("John Doe"));
+        Optional<User> second = nodeA.get(1L, database("John Doe"));
+
+        // Then
+        assertThat(second).map(User::getName).contains("John Doe");
+        assertThat(dbLoads).hasValue(1);
+        assertThat(requests("l1", "hit")).isEqualTo(1);
+        assertThat(requests("l2", "miss")).isEqualTo(1);
+    }
+
+    @Test
+    void otherReplica_ShouldBeServedFromL2() {
+        // Given node A loaded the user from the database
+        nodeA.get(1L, database("John Doe"));
+
+        // When node B reads it
+        Optional<User> fromB = nodeB.get(1L, database("John Doe"));
+
+        // Then
+        assertThat(fromB).map(User::getName).contains("John Doe");
+        assertThat(dbLoads).hasValue(1);
+    }
+
+    @Test
+    void invalidate_ShouldDropBothTiersOnEveryReplica() {
+        // Given both replicas hold the user in L1
+        nodeA.get(1L, database("John Doe"));
+        nodeB.get(1L, database("John Doe"));
+
+        // When node A writes
+        nodeA.invalidate(1L);
+
+        // Then node B reloads the new value from the database
+        Optional<User> fromB = nodeB.get(1L, database("Johnny Doe"));
+        assertThat(fromB).map(User::getName).contains("Johnny Doe");
+        assertThat(dbLoads).hasValue(2);
+    }
+
+    @Test
+    void loadRacingAWrite_ShouldNotCacheTheOldRow() {
+        // When a write lands while the load is reading the old row
+        Optional<User> stale = nodeA.get(1L, () -> {
+            nodeB.invalidate(1L);
+            return Optional.of(new User("Old Name", "john@spring.com"));
+        });
+
+        // Then the old row is returned once but not cached
+        assertThat(stale).map(User::getName).contains("Old Name");
+        assertThat(l2.size()).isZero();
+        assertThat(nodeA.get(1L, database("New Name"))).map(User::getName).contains("New Name");
+    }
+
+    @Test
+    void invalidateInsideATransaction_ShouldTakeEffectAfterCommit() {
+        // Given node B holds the user
+        nodeB.get(1L, database("John Doe"));
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            // When node A's write calls invalidate before committing
+            nodeA.invalidate(1L);
+
+            // Then nothing is dropped yet
+            assertThat(nodeB.get(1L, database("Not Loaded"))).map(User::getName).contains("John Doe");
+
+            // When the transaction commits
+            TransactionSynchronizationUtils.invokeAfterCommit(TransactionSynchronizationManager.getSynchronizations());
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        // Then the next read goes to the database
+        assertThat(nodeB.get(1L, database("Johnny Doe"))).map(User::getName).contains("Johnny Doe");
+        assertThat(dbLoads).hasValue(2);
+    }
+
+    @Test
+    void writeBurstLargerThanL1_ShouldKeepEveryInvalidationMarker() {
+        // Given more ids written within the window than the L1 holds (100)
+        for (long userId = 1; userId <= 500; userId++) {
+            nodeB.invalidate(userId);
+        }
+
+        // When the first one is read, possibly from a lagging replica
+        nodeA.get(1L, database("Maybe Stale"));
+
+        // Then it isn't cached
+        nodeA.get(1L, database("Current"));
+        assertThat(dbLoads).hasValue(2);
+        assertThat(l2.size()).isZero();
+    }
+
+    @Test
+    void misses_ShouldNotBeCached() {
+        // When
+        nodeA.get(999L, () -> { dbLoads.incrementAndGet(); return Optional.empty(); });
+        nodeA.get(999L, () -> { dbLoads.incrementAndGet(); return Optional.empty(); });
+
+        // Then
+        assertThat(dbLoads).hasValue(2);
+    }
+
+    @Test
+    void getAll_ShouldOnlyLoadWhatNeitherTierHas() {
+        // Given 1 is in node A's L1, 2 only in L2 (loaded by node B)
+        nodeA.get(1L, database("One"));
+        nodeB.get(2L, database("Two"));
+        List<List<Long>> loaderCalls = new java.util.ArrayList<>();
+
+        // When
+        Map<Long, User> found = nodeA.getAll(List.of(1L, 2L, 3L, 4L), missing -> {
+            loaderCalls.add(List.copyOf(missing));
+            Map<Long, User> rows = new HashMap<>();
+            rows.put(3L, new User("Three", "three@spring.com"));
+            return rows;
+        });
+
+        // Then one database call for 3 and 4, 4 is a miss
+        assertThat(loaderCalls).containsExactly(List.of(3L, 4L));
+        assertThat(found).containsOnlyKeys(1L, 2L, 3L);
+        assertThat(found.get(2L).getName()).isEqualTo("Two");
+        assertThat(nodeA.get(3L, database("Not Loaded"))).map(User::getName).contains("Three");
+        assertThat(requests("l1", "hit")).isEqualTo(2);
+    }
+
+    @Test
+    void withoutL2_ShouldGoFromL1ToTheDatabase() {
+        // Given a replica without a shared store
+        UserCache local = new UserCache(new UserCacheProperties(true, 100, Duration.ofSeconds(30), Duration.ofMinutes(5),
+                Duration.ofSeconds(10)),
+                new NoSharedCache(), new InMemoryCacheInvalidationBus(), new SingleFlight(Duration.ofSeconds(2), meterRegistry),
+                new ObjectMapper(), meterRegistry);
+
+        // When
+        local.get(1L, database("John Doe"));
+        Optional<User> second = local.get(1L, database("John Doe"));
+
+        // Then L1 serves the second read and the L2 tier is never counted
+        assertThat(second).map(User::getName).contains("John Doe");
+        assertThat(dbLoads).hasValue(1);
+        assertThat(requests("l2", "miss")).isZero();
+    }
+
+    @Test
+    void inMemoryL2_ShouldBeBounded() {
+        // Given
+        InMemorySharedCache bounded = new InMemorySharedCache(10);
+
+        // When
+        for (int i = 0; i < 100; i++) {
+            bounded.put("users:v1:" + i, new byte[1], Duration.ofMinutes(5));
+        }
+
+        // Then
+        assertThat(bounded.size()).isLessThanOrEqualTo(10);
+    }
+
+    private double requests(String tier, String result) {
+        return meterRegistry.get("users.cache.requests").tag("tier", tier).tag("result", result).counter().count();
+    }
+}
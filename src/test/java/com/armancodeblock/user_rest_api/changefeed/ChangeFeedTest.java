@@ -0,0 +1,152 @@
+package com.armancodeblock.user_rest_api.changefeed;
+
+import com.armancodeblock.user_rest_api.enity.User;
+import com.armancodeblock.user_rest_api.enity.UserChange;
+import com.armancodeblock.user_rest_api.repository.UserChangeRepository;
+import com.armancodeblock.user_rest_api.repository.UserRepository;
+import com.armancodeblock.user_rest_api.service.UserService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// Not @Transactional: journal rows become visible to the feed on commit, like in production.
+@SpringBootTest
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+        "users.change-feed.poll-interval=50ms",
+        "users.change-feed.gap-timeout=2s"
+})
+class ChangeFeedTest {
+
+    @Autowired
+    private ChangeFeed changeFeed;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private UserChangeRepository changeRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private long head;
+
+    @BeforeEach
+    void setUp() {
+        userRepository.deleteAll();
+        Long max = changeRepository.findMaxSeq();
+        head = max == null ? 0 : max;
+    }
+
+    @Test
+    void read_ShouldReturnMutationsInCommitOrderAndAdvanceCursor() {
+        // Given
+        User created = userService.createUser(new User("Feed User", "feed@example.com"));
+        userService.updateUser(created.getUserId(), new User("Feed User 2", "feed2@example.com"));
+        userService.deleteUserById(created.getUserId());
+
+        // When
+        ChangePage first = changeFeed.read(head, 2);
+        ChangePage second = changeFeed.read(first.next(), 2);
+
+        // Then
+        assertThat(first.changes()).extracting(UserChange::getAction)
+                .containsExactly(UserChange.Action.CREATE, UserChange.Action.UPDATE);
+        assertThat(first.changes().get(1).getName()).isEqualTo("Feed User 2");
+        assertThat(second.changes()).extracting(UserChange::getAction).containsExactly(UserChange.Action.DELETE);
+        assertThat(second.changes().get(0).getUserId()).isEqualTo(created.getUserId());
+        assertThat(changeFeed.read(second.next(), 2).changes()).isEmpty();
+        assertThat(changeFeed.read(second.next(), 2).next()).isEqualTo(second.next());
+    }
+
+    @Test
+    void poll_ShouldCompleteWhenAChangeIsCommitted() throws InterruptedException {
+        // Given a long poll with nothing to return yet
+        DeferredResult<ChangePage> result = changeFeed.poll(head, 100, 10_000);
+        assertThat(result.hasResult()).isFalse();
+
+        // When
+        userService.createUser(new User("Waited For", "waited@example.com"));
+
+        // Then
+        long deadline = System.nanoTime() + 5_000_000_000L;
+        while (!result.hasResult() && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+        }
+        ChangePage page = (ChangePage) result.getResult();
+        assertThat(page.changes()).extracting(UserChange::getName).containsExactly("Waited For");
+    }
+
+    @Test
+    void read_ShouldStopInFrontOfAGapUntilGapTimeoutAfterFirstSeeingIt() throws InterruptedException {
+        // Given head+3 committed while head+2 is still "in flight", both rows older than gap-timeout
+        // (a long-open transaction: the row's own timestamp says nothing about the gap)
+        insertChange(head + 1, Instant.now().minusSeconds(10));
+        insertChange(head + 3, Instant.now().minusSeconds(10));
+
+        // When & Then the consumer waits for head+2
+        assertThat(changeFeed.read(head, 100).changes()).extracting(UserChange::getSeq).containsExactly(head + 1);
+        assertThat(changeFeed.read(head + 1, 100).changes()).isEmpty();
+
+        // Given gap-timeout has passed since the gap was first seen (head+2 was rolled back)
+        Thread.sleep(2_100);
+
+        // When & Then
+        assertThat(changeFeed.read(head + 1, 100).changes()).extracting(UserChange::getSeq)
+                .containsExactly(head + 3);
+    }
+
+    @Test
+    void read_ShouldRejectCursorOlderThanRetainedChanges() throws InterruptedException {
+        // Given everything up to head+10 was purged
+        insertChange(head + 10, Instant.now().minus(1, ChronoUnit.HOURS));
+        jdbcTemplate.update("DELETE FROM user_changes WHERE seq < ?", head + 10);
+
+        // When & Then the hole may still be committing at first
+        assertThat(changeFeed.read(head, 100).changes()).isEmpty();
+        Thread.sleep(2_100);
+        assertThatThrownBy(() -> changeFeed.read(head, 100))
+                .isInstanceOf(CursorExpiredException.class)
+                .satisfies(e -> assertThat(((CursorExpiredException) e).getHead()).isEqualTo(head + 10));
+        assertThat(changeFeed.read(head + 9, 100).changes()).hasSize(1);
+    }
+
+    @Test
+    void poll_ShouldCompleteWaitersOnTheSameCursorWithTheirOwnLimit() throws InterruptedException {
+        // Given two long polls on the same cursor
+        DeferredResult<ChangePage> one = changeFeed.poll(head, 1, 10_000);
+        DeferredResult<ChangePage> all = changeFeed.poll(head, 100, 10_000);
+
+        // When
+        userService.createUser(new User("First Waited", "first-waited@example.com"));
+        userService.createUser(new User("Second Waited", "second-waited@example.com"));
+
+        // Then
+        long deadline = System.nanoTime() + 5_000_000_000L;
+        while (!(one.hasResult() && all.hasResult()) && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+        }
+        ChangePage first = (ChangePage) one.getResult();
+        assertThat(first.changes()).hasSize(1);
+        assertThat(first.next()).isEqualTo(first.changes().get(0).getSeq());
+        assertThat(((ChangePage) all.getResult()).changes()).isNotEmpty();
+    }
+
+    private void insertChange(long seq, Instant changedAt) {
+        jdbcTemplate.update("INSERT INTO user_changes (seq, user_id, action, name, email, changed_at) VALUES (?, 1, 'UPDATE', 'x', 'x@example.com', ?)",
+                seq, Timestamp.from(changedAt));
+        jdbcTemplate.execute("ALTER TABLE user_changes ALTER COLUMN seq RESTART WITH " + (seq + 1));
+    }
+}
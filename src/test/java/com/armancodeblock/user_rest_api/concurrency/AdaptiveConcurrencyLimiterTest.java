@@ -0,0 +1,94 @@
+package com.armancodeblock.user_rest_api.concurrency;
+
+import com.armancodeblock.user_rest_api.exception.ServiceOverloadedException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    private static final long THRESHOLD = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private AdaptiveConcurrencyLimiter limiter;
+
+    @BeforeEach
+    void setUp() {
+        limiter = new AdaptiveConcurrencyLimiter(
+                new ConcurrencyLimitProperties(true, 10, 2, 20, Duration.ofMillis(100), 0.5,
+                        Duration.ofMillis(100)),
+                new SimpleMeterRegistry());
+    }
+
+    @Test
+    void slowCalls_ShouldShrinkLimitOncePerThresholdPeriod() {
+        // Given
+        long now = System.nanoTime() + THRESHOLD;
+
+        // When - two slow samples in the same period
+        limiter.onSample(THRESHOLD * 2, 10, now);
+        limiter.onSample(THRESHOLD * 2, 10, now + 1);
+        limiter.update(now + 1);
+
+        // Then
+        assertThat(limiter.getLimit()).isEqualTo(5);
+
+        // When - another slow sample, folded in before and then after one period
+        limiter.onSample(THRESHOLD * 2, 5, now + THRESHOLD);
+        limiter.update(now + THRESHOLD / 2);
+        assertThat(limiter.getLimit()).isEqualTo(5);
+        limiter.onSample(THRESHOLD * 2, 5, now + THRESHOLD);
+        limiter.update(now + 1 + THRESHOLD);
+
+        // Then - never below the minimum
+        assertThat(limiter.getLimit()).isEqualTo(2);
+    }
+
+    @Test
+    void fastCalls_ShouldGrowLimitOnlyWhenItIsUsed() {
+        // When - fast but nearly idle
+        for (int i = 0; i < 100; i++) {
+            limiter.onSample(1, 1, System.nanoTime());
+        }
+        limiter.update(System.nanoTime());
+
+        // Then
+        assertThat(limiter.getLimit()).isEqualTo(10);
+
+        // When - fast and busy
+        for (int i = 0; i < 100; i++) {
+            limiter.onSample(1, 10, System.nanoTime());
+        }
+        limiter.update(System.nanoTime());
+
+        // Then - never above the maximum
+        assertThat(limiter.getLimit()).isGreaterThan(10).isLessThanOrEqualTo(20);
+    }
+
+    @Test
+    void anonymousReads_ShouldBeShedBeforeWrites() {
+        // Given 7 anonymous reads in flight (70% of a limit of 10)
+        holdSlots(Priority.ANONYMOUS_READ, 7, () -> {
+            // When & Then
+            assertThatThrownBy(() -> limiter.execute(Priority.ANONYMOUS_READ, () -> "read"))
+                    .isInstanceOf(ServiceOverloadedException.class);
+            assertThat(limiter.execute(Priority.WRITE, () -> "write")).isEqualTo("write");
+        });
+        assertThat(limiter.getRejected(Priority.ANONYMOUS_READ)).isEqualTo(1.0);
+        assertThat(limiter.getInflight()).isZero();
+    }
+
+    // nests calls so that `count` slots are held while `body` runs inside the innermost one
+    private void holdSlots(Priority priority, int count, Runnable body) {
+        if (count == 0) {
+            body.run();
+            return;
+        }
+        limiter.run(priority, () -> holdSlots(priority, count - 1, body));
+    }
+}
@@ -0,0 +1,125 @@
+package com.armancodeblock.user_rest_api.concurrency;
+
+import com.armancodeblock.user_rest_api.exception.ResourceNotFoundException;
+import com.armancodeblock.user_rest_api.exception.ServiceOverloadedException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SingleFlightTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private SingleFlight singleFlight;
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        singleFlight = new SingleFlight(Duration.ofSeconds(2), meterRegistry);
+        executor = Executors.newFixedThreadPool(8);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void concurrentIdenticalCalls_ShouldShareOneLoad() throws Exception {
+        // Given a slow loader
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+
+        // When 8 callers ask for the same key while the first load is running
+        List<Future<String>> results = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            results.add(executor.submit(() -> singleFlight.execute("user-1", () -> {
+                loads.incrementAndGet();
+                await(release);
+                return "John Doe";
+            })));
+        }
+        waitUntil(() -> singleFlight.inflight() == 1 && coalesced() == 7);
+        release.countDown();
+
+        // Then
+        for (Future<String> result : results) {
+            assertThat(result.get(2, TimeUnit.SECONDS)).isEqualTo("John Doe");
+        }
+        assertThat(loads.get()).isEqualTo(1);
+        assertThat(singleFlight.inflight()).isZero();
+    }
+
+    @Test
+    void leaderException_ShouldPropagateToFollowers() throws Exception {
+        // Given
+        CountDownLatch release = new CountDownLatch(1);
+        Future<Object> leader = executor.submit(() -> singleFlight.execute("missing", () -> {
+            await(release);
+            throw new ResourceNotFoundException("User not found with userId:999");
+        }));
+        waitUntil(() -> singleFlight.inflight() == 1);
+
+        // When
+        Future<Object> follower = executor.submit(() -> singleFlight.execute("missing", () -> "never called"));
+        waitUntil(() -> coalesced() == 1);
+        release.countDown();
+
+        // Then both see the same exception type
+        assertThatThrownBy(() -> leader.get(2, TimeUnit.SECONDS)).hasCauseInstanceOf(ResourceNotFoundException.class);
+        assertThatThrownBy(() -> follower.get(2, TimeUnit.SECONDS)).hasCauseInstanceOf(ResourceNotFoundException.class);
+    }
+
+    @Test
+    void follower_ShouldTimeOutWhenLeaderIsStuck() throws Exception {
+        // Given
+        singleFlight = new SingleFlight(Duration.ofMillis(50), meterRegistry);
+        CountDownLatch release = new CountDownLatch(1);
+        executor.submit(() -> singleFlight.execute("slow", () -> {
+            await(release);
+            return "late";
+        }));
+        waitUntil(() -> singleFlight.inflight() == 1);
+
+        // When & Then
+        assertThatThrownBy(() -> singleFlight.execute("slow", () -> "never called"))
+                .isInstanceOf(ServiceOverloadedException.class);
+        release.countDown();
+    }
+
+    private double coalesced() {
+        return meterRegistry.find("users.single_flight.coalesced").counters().stream()
+                .mapToDouble(c -> c.count()).sum();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void waitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean() && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertThat(condition.getAsBoolean()).isTrue();
+    }
+}
@@ -0,0 +1,109 @@
+package com.armancodeblock.user_rest_api.datasource;
+
+import com.armancodeblock.user_rest_api.enity.User;
+import com.armancodeblock.user_rest_api.repository.UserRepository;
+import com.armancodeblock.user_rest_api.service.UserService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Two H2 databases stand in for the primary and a replica. The replica is filled by hand with different rows,
+// so every read shows which database it came from.
+@SpringBootTest
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:primary;DB_CLOSE_DELAY=-1",
+        "users.datasource.replicas[0].url=" + ReadReplicaRoutingTest.REPLICA_URL,
+        "users.datasource.replicas[0].username=sa",
+        "users.datasource.replicas[0].password=",
+        "users.datasource.read-your-writes-window=30s",
+        "users.cache.enabled=false"
+})
+class ReadReplicaRoutingTest {
+
+    static final String REPLICA_URL = "jdbc:h2:mem:replica;DB_CLOSE_DELAY=-1";
+
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private UserRepository userRepository;
+
+    private JdbcTemplate replica;
+    private Long primaryId;
+
+    @BeforeEach
+    void setUp() {
+        replica = new JdbcTemplate(new DriverManagerDataSource(REPLICA_URL, "sa", ""));
+        replica.execute("CREATE TABLE IF NOT EXISTS users (user_id BIGINT AUTO_INCREMENT PRIMARY KEY, name VARCHAR(255), email VARCHAR(255))");
+        replica.update("DELETE FROM users");
+        replica.update("INSERT INTO users (name, email) VALUES ('Replica Row', 'replica@example.com')");
+        userRepository.deleteAll();
+        primaryId = userRepository.save(new User("Primary Row", "primary@example.com")).getUserId();
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void readOnlyServiceCalls_ShouldGoToReplica() {
+        // When
+        List<String> names = names();
+
+        // Then
+        assertThat(names).containsExactly("Replica Row");
+        assertThat(userService.getAllUsersByNamePrefix("Primary")).isEmpty();
+    }
+
+    @Test
+    void writer_ShouldReadOwnWritesFromPrimary() {
+        // Given admin writes
+        authenticate("admin");
+        userService.createUser(new User("Admin Write", "admin-write@example.com"));
+
+        // When & Then admin reads the primary
+        assertThat(names()).containsExactlyInAnyOrder("Primary Row", "Admin Write");
+
+        // and another principal still reads the replica
+        authenticate("user");
+        assertThat(names()).containsExactly("Replica Row");
+    }
+
+    @Test
+    void updateUser_ShouldReadAndWriteThePrimary() {
+        // Given a row the replica hasn't seen yet
+        replica.update("DELETE FROM users");
+        authenticate("editor");
+
+        // When
+        User updated = userService.updateUser(primaryId, new User("Updated Row", "primary@example.com"));
+
+        // Then the existing row was updated instead of a new one being inserted
+        assertThat(updated.getUserId()).isEqualTo(primaryId);
+        assertThat(names()).containsExactly("Updated Row");
+    }
+
+    private List<String> names() {
+        return userService.getAllUsers(PageRequest.of(0, 10)).map(User::getName).getContent();
+    }
+
+    private static void authenticate(String name) {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(name, null, AuthorityUtils.createAuthorityList("ROLE_ADMIN")));
+    }
+}
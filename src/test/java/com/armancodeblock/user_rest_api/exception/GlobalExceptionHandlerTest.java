@@ -0,0 +1,32 @@
+package com.armancodeblock.user_rest_api.exception;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.server.ResponseStatusException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GlobalExceptionHandlerTest {
+
+    @Test
+    void handleException_ShouldCountEachStatusOfTheSameExceptionTypeSeparately() throws Exception {
+        // Given
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        GlobalExceptionHandler handler = new GlobalExceptionHandler(registry);
+        ServletWebRequest request = new ServletWebRequest(new MockHttpServletRequest());
+
+        // When
+        handler.handleException(new ResponseStatusException(HttpStatus.BAD_REQUEST), request);
+        handler.handleException(new ResponseStatusException(HttpStatus.CONFLICT), request);
+        handler.handleException(new ResponseStatusException(HttpStatus.CONFLICT), request);
+
+        // Then
+        assertThat(registry.get("users.errors").tag("exception", "ResponseStatusException").tag("status", "400")
+                .counter().count()).isEqualTo(1);
+        assertThat(registry.get("users.errors").tag("exception", "ResponseStatusException").tag("status", "409")
+                .counter().count()).isEqualTo(2);
+    }
+}
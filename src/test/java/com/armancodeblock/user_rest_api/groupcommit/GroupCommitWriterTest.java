@@ -0,0 +1,137 @@
+package com.armancodeblock.user_rest_api.groupcommit;
+
+import com.armancodeblock.user_rest_api.enity.User;
+import com.armancodeblock.user_rest_api.repository.UserRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+// Not @Transactional: the writer thread commits in its own transactions.
+@SpringBootTest
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+        "users.group-commit.enabled=true",
+        "users.group-commit.batch-size=10",
+        "users.group-commit.max-delay=200ms"
+})
+class GroupCommitWriterTest {
+
+    @Autowired
+    private GroupCommitWriter writer;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private MeterRegistry meterRegistry;
+    @Autowired
+    private WebApplicationContext webApplicationContext;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).build();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void submit_ShouldCommitCreatesArrivingTogetherInOneGroup() throws Exception {
+        // Given
+        DistributionSummary batchSize = meterRegistry.get("users.group_commit.batch.size").summary();
+        long groupsBefore = batchSize.count();
+
+        // When
+        List<CreateTicket> tickets = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            tickets.add(writer.submit(new User("Group User " + i, "group" + i + "@example.com")));
+        }
+        for (CreateTicket ticket : tickets) {
+            ticket.getResult().get(5, TimeUnit.SECONDS);
+        }
+
+        // Then
+        assertThat(tickets).allMatch(t -> t.status().state() == CreateStatus.State.COMMITTED);
+        assertThat(tickets.get(0).status().user().getUserId()).isNotNull();
+        assertThat(userRepository.count()).isEqualTo(5);
+        assertThat(batchSize.count() - groupsBefore).isLessThan(5); // fewer commits than creates
+    }
+
+    @Test
+    void submit_WithOneBadRow_ShouldFailOnlyThatTicket() throws Exception {
+        // Given a name the entity constraints reject at insert (the controller would have answered 400)
+        CreateTicket good = writer.submit(new User("Good User", "good@example.com"));
+        CreateTicket bad = writer.submit(new User("X", "bad@example.com"));
+
+        // When
+        good.getResult().get(5, TimeUnit.SECONDS);
+        bad.getResult().handle((user, error) -> null).get(5, TimeUnit.SECONDS);
+
+        // Then
+        assertThat(good.status().state()).isEqualTo(CreateStatus.State.COMMITTED);
+        assertThat(bad.status().state()).isEqualTo(CreateStatus.State.FAILED);
+        assertThat(userRepository.findAll()).extracting(User::getName).containsExactly("Good User");
+    }
+
+    @Test
+    void post_WithRespondAsync_ShouldReturnAcceptedAndStatusHandle() throws Exception {
+        // When
+        MvcResult accepted = mockMvc.perform(post("/api/v1/users")
+                        .header("Prefer", "respond-async")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new User("Async User", "async@example.com"))))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String location = mockMvc.perform(asyncDispatch(accepted))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Preference-Applied", "respond-async"))
+                .andExpect(jsonPath("$.ticket").exists())
+                .andReturn().getResponse().getHeader("Location");
+
+        // Then the handle turns COMMITTED once the group is written
+        writer.ticket(location.substring(location.lastIndexOf('/') + 1)).getResult().get(5, TimeUnit.SECONDS);
+        mockMvc.perform(get(location))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.state").value("COMMITTED"))
+                .andExpect(jsonPath("$.user.email").value("async@example.com"));
+        mockMvc.perform(get("/api/v1/users/creates/unknown"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void post_WithPreferWait_ShouldReturnCreatedAfterGroupCommit() throws Exception {
+        // When
+        MvcResult pending = mockMvc.perform(post("/api/v1/users")
+                        .header("Prefer", "wait=5")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new User("Waiting User", "wait@example.com"))))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Then
+        mockMvc.perform(asyncDispatch(pending))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.userId").exists())
+                .andExpect(jsonPath("$.name").value("Waiting User"));
+        assertThat(userRepository.count()).isEqualTo(1);
+    }
+}
@@ -2,7 +2,10 @@ package com.armancodeblock.user_rest_api.integration;
 
 import com.armancodeblock.user_rest_api.enity.User;
 import com.armancodeblock.user_rest_api.repository.UserRepository;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -11,10 +14,12 @@ import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.context.WebApplicationContext;
 
+import java.util.Arrays;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -93,11 +98,64 @@ class UserIntegrationTest {
                 .andExpect(jsonPath("$.email").value(user.getEmail()));
     }
 
+    @Test
+    void getUserById_ShouldBeCacheableForConfiguredMaxAge() throws Exception {
+        // Given
+        User user = userRepository.findAll().get(0);
+
+        // When & Then
+        MvcResult result = mockMvc.perform(get("/api/v1/users/" + user.getUserId()))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Cache-Control", "max-age=30, public"))
+                .andReturn();
+        assertThat(vary(result)).contains("Accept-Encoding");
+    }
+
+    @Test
+    void cacheableGets_ShouldVaryOnAccept() throws Exception {
+        // Given the body depends on Accept (JSON, CBOR, Smile), a shared cache must key on it
+        User user = userRepository.findAll().get(0);
+
+        // When & Then
+        for (String path : List.of("/api/v1/users/" + user.getUserId(), "/api/v1/users")) {
+            MvcResult result = mockMvc.perform(get(path).accept("application/cbor"))
+                    .andExpect(status().isOk())
+                    .andExpect(header().exists("Cache-Control"))
+                    .andReturn();
+            assertThat(vary(result)).contains("Accept", "Accept-Encoding");
+        }
+    }
+
+    private static List<String> vary(MvcResult result) {
+        return result.getResponse().getHeaders("Vary").stream()
+                .flatMap(value -> Arrays.stream(value.split(",")))
+                .map(String::trim)
+                .toList();
+    }
+
+    @Test
+    void getUserById_WithInvalidId_ShouldNotBeCacheable() throws Exception {
+        // When & Then
+        mockMvc.perform(get("/api/v1/users/999"))
+                .andExpect(header().doesNotExist("Cache-Control"));
+    }
+
     @Test
     void getUserById_WithInvalidId_ShouldReturnNotFound() throws Exception {
         // When & Then
         mockMvc.perform(get("/api/v1/users/999"))
-                .andExpect(status().isInternalServerError()); // Expecting 500 for now since there's no proper error handling
+                .andExpect(status().isNotFound())
+                .andExpect(content().contentType(MediaType.APPLICATION_PROBLEM_JSON))
+                .andExpect(jsonPath("$.status").value(404))
+                .andExpect(jsonPath("$.detail").value("User not found with userId:999"));
+    }
+
+    @Test
+    void getUserById_WithNonNumericId_ShouldReturnBadRequest() throws Exception {
+        // When & Then
+        mockMvc.perform(get("/api/v1/users/abc"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().contentType(MediaType.APPLICATION_PROBLEM_JSON));
     }
 
     @Test
@@ -155,7 +213,9 @@ class UserIntegrationTest {
         mockMvc.perform(post("/api/v1/users")
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(invalidUser)))
-                .andExpect(status().isBadRequest());
+                .andExpect(status().isBadRequest())
+                .andExpect(content().contentType(MediaType.APPLICATION_PROBLEM_JSON))
+                .andExpect(jsonPath("$.errors.name").exists());
     }
 
     @Test
@@ -169,4 +229,119 @@ class UserIntegrationTest {
                 .content(objectMapper.writeValueAsString(duplicateUser)))
                 .andExpect(status().isCreated()); // Expecting 201 since no unique constraint exists
     }
+
+    @Test
+    void getUsersByIds_ShouldReturnRequestOrderWithMisses() throws Exception {
+        // Given
+        List<User> users = userRepository.findAll();
+        Long john = users.stream().filter(u -> u.getName().equals("John Doe")).findFirst().orElseThrow().getUserId();
+        Long jane = users.stream().filter(u -> u.getName().equals("Jane Smith")).findFirst().orElseThrow().getUserId();
+
+        // When & Then
+        mockMvc.perform(get("/api/v1/users/batch").param("ids", jane + "," + 999999 + "," + john))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(3)))
+                .andExpect(jsonPath("$[0].user.name").value("Jane Smith"))
+                .andExpect(jsonPath("$[1].userId").value(999999))
+                .andExpect(jsonPath("$[1].user").doesNotExist())
+                .andExpect(jsonPath("$[2].user.name").value("John Doe"));
+
+        mockMvc.perform(post("/api/v1/users/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[" + john + "]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].user.email").value("john@example.com"));
+    }
+
+    @Test
+    void getUsersByIds_OverMaxBatchSize_ShouldReturnBadRequest() throws Exception {
+        // Given
+        String ids = java.util.stream.LongStream.rangeClosed(1, 101)
+                .mapToObj(Long::toString).collect(java.util.stream.Collectors.joining(","));
+
+        // When & Then
+        mockMvc.perform(get("/api/v1/users/batch").param("ids", ids))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().contentType(MediaType.APPLICATION_PROBLEM_JSON));
+    }
+
+    @Test
+    void searchUsers_ShouldRankExactAndPrefixAboveSubstringMatches() throws Exception {
+        // Given
+        userRepository.saveAll(List.of(new User("Smith", "smith@example.com"), new User("Smithers", "w@example.com")));
+        userRepository.flush(); // search runs plain SQL, which doesn't flush the pending deletes from setUp
+
+        // When & Then exact, then prefix, then substring ("Jane Smith")
+        mockMvc.perform(get("/api/v1/users/search/ranked").param("q", "SMITH"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.hits", hasSize(3)))
+                .andExpect(jsonPath("$.hits[0].user.name").value("Smith"))
+                .andExpect(jsonPath("$.hits[1].user.name").value("Smithers"))
+                .andExpect(jsonPath("$.hits[2].user.name").value("Jane Smith"))
+                .andExpect(jsonPath("$.next").doesNotExist());
+    }
+
+    @Test
+    void searchUsers_ShouldPageWithCursor() throws Exception {
+        // Given
+        userRepository.saveAll(List.of(new User("Ann Example", "ann@example.com"), new User("Bob Example", "bob@example.com")));
+        userRepository.flush();
+
+        // When first page
+        String first = mockMvc.perform(get("/api/v1/users/search/ranked").param("q", "example").param("limit", "3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.hits", hasSize(3)))
+                .andReturn().getResponse().getContentAsString();
+        String next = objectMapper.readTree(first).get("next").asText();
+
+        // Then the second page has the remaining match
+        mockMvc.perform(get("/api/v1/users/search/ranked").param("q", "example").param("limit", "3").param("after", next))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.hits", hasSize(1)))
+                .andExpect(jsonPath("$.next").doesNotExist());
+        mockMvc.perform(get("/api/v1/users/search/ranked").param("q", "example").param("after", "not-a-cursor"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void getAllUsers_WithBinaryAccept_ShouldReturnSameDocumentAsJson() throws Exception {
+        // Given
+        String json = mockMvc.perform(get("/api/v1/users"))
+                .andReturn().getResponse().getContentAsString();
+
+        // When
+        byte[] cbor = mockMvc.perform(get("/api/v1/users").accept("application/cbor"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/cbor"))
+                .andReturn().getResponse().getContentAsByteArray();
+        byte[] smile = mockMvc.perform(get("/api/v1/users").accept("application/x-jackson-smile"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-jackson-smile"))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        // Then
+        JsonNode expected = objectMapper.readTree(json);
+        assertThat(new ObjectMapper(new CBORFactory()).readTree(cbor)).isEqualTo(expected);
+        assertThat(new ObjectMapper(new SmileFactory()).readTree(smile)).isEqualTo(expected);
+        assertThat(expected.get("content")).hasSize(2);
+    }
+
+    @Test
+    void createUser_WithCborBody_ShouldPersistUser() throws Exception {
+        // Given
+        ObjectMapper cborMapper = new ObjectMapper(new CBORFactory());
+        byte[] body = cborMapper.writeValueAsBytes(new User("Cbor User", "cbor@example.com"));
+
+        // When
+        byte[] response = mockMvc.perform(post("/api/v1/users")
+                .contentType("application/cbor")
+                .accept("application/cbor")
+                .content(body))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsByteArray();
+
+        // Then
+        assertThat(cborMapper.readTree(response).get("email").asText()).isEqualTo("cbor@example.com");
+        assertThat(userRepository.findAll()).extracting(User::getName).contains("Cbor User");
+    }
 }
@@ -0,0 +1,76 @@
+package com.armancodeblock.user_rest_api.json;
+
+import com.armancodeblock.user_rest_api.enity.User;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// The hand-written serializers must produce exactly what the bean serializer did, clients parse that shape.
+class UserApiJsonModuleTest {
+
+    private final ObjectMapper reflective = Jackson2ObjectMapperBuilder.json().build();
+    private final ObjectMapper tuned = Jackson2ObjectMapperBuilder.json()
+            .factory(JsonConfig.pooledJsonFactory(4))
+            .modulesToInstall(new BlackbirdModule(), JsonConfig.userApiModule())
+            .build();
+
+    private final List<User> users = List.of(new User(1L, "John Doe", "john@example.com"),
+            new User(2L, "Jane \"JJ\" Smith", null));
+
+    @Test
+    void user_ShouldSerializeLikeTheBeanSerializer() throws Exception {
+        // When & Then
+        assertSameJson(users.get(0));
+        assertSameJson(users.get(1));
+        assertSameJson(new User("No Id", "new@example.com"));
+    }
+
+    @Test
+    void page_ShouldSerializeLikeTheBeanSerializer() throws Exception {
+        // When & Then
+        assertSameJson(new PageImpl<>(users, PageRequest.of(2, 2, Sort.by("name")), 100));
+        assertSameJson(new PageImpl<>(users, PageRequest.of(0, 20), 2));
+        assertSameJson(new PageImpl<>(Arrays.asList(users.get(0), null), PageRequest.of(0, 2), 2));
+    }
+
+    @Test
+    void unpagedPage_ShouldSerialize() throws Exception {
+        // When (the bean serializer throws here, Unpaged.getOffset() is unsupported)
+        String json = tuned.writeValueAsString(new PageImpl<>(users));
+
+        // Then
+        assertThat(tuned.readTree(json).get("pageable").asText()).isEqualTo("INSTANCE");
+        assertThat(tuned.readTree(json).get("content")).hasSize(2);
+    }
+
+    @Test
+    void user_ShouldStillReadBack() throws Exception {
+        // Given
+        byte[] json = tuned.writeValueAsBytes(users.get(0));
+
+        // When
+        User read = tuned.readValue(json, User.class);
+
+        // Then
+        assertThat(read.getUserId()).isEqualTo(1L);
+        assertThat(read.getName()).isEqualTo("John Doe");
+    }
+
+    private void assertSameJson(Object value) throws Exception {
+        assertThat(tuned.writeValueAsString(value)).isEqualTo(reflective.writeValueAsString(value));
+    }
+
+    private void assertSameJson(Page<?> page) throws Exception {
+        assertThat(tuned.writeValueAsString(page)).isEqualTo(reflective.writeValueAsString(page));
+    }
+}
@@ -0,0 +1,93 @@
+package com.armancodeblock.user_rest_api.ratelimit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.context.properties.bind.BindException;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.source.MapConfigurationPropertySource;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RateLimiterTest {
+
+    private static final long NOW = TimeUnit.SECONDS.toNanos(1000);
+
+    @Test
+    void tokenBucket_ShouldAllowBurstThenThrottle() {
+        // Given 10 permits per second with a burst of 3
+        TokenBucket bucket = new TokenBucket(10, 3);
+
+        // When & Then
+        assertThat(bucket.tryAcquire(NOW)).isZero();
+        assertThat(bucket.tryAcquire(NOW)).isZero();
+        assertThat(bucket.tryAcquire(NOW)).isZero();
+        assertThat(bucket.tryAcquire(NOW)).isEqualTo(TimeUnit.MILLISECONDS.toNanos(100));
+    }
+
+    @Test
+    void tokenBucket_ShouldRefillOverTime() {
+        // Given an exhausted bucket
+        TokenBucket bucket = new TokenBucket(10, 1);
+        bucket.tryAcquire(NOW);
+        assertThat(bucket.tryAcquire(NOW)).isPositive();
+
+        // When & Then - one interval later a permit is available again
+        assertThat(bucket.tryAcquire(NOW + TimeUnit.MILLISECONDS.toNanos(100))).isZero();
+        assertThat(bucket.isIdle(NOW + TimeUnit.MILLISECONDS.toNanos(200))).isTrue();
+    }
+
+    @Test
+    void rateLimiter_ShouldLimitEachKeyIndependently() {
+        // Given
+        RateLimiter limiter = new RateLimiter(1, 1, 100);
+
+        // When & Then
+        assertThat(limiter.tryAcquire("10.0.0.1", NOW)).isZero();
+        assertThat(limiter.tryAcquire("10.0.0.1", NOW)).isPositive();
+        assertThat(limiter.tryAcquire("10.0.0.2", NOW)).isZero();
+    }
+
+    @Test
+    void rateLimiter_ShouldStayBoundedAndEvictIdleBucketsFirst() {
+        // Given a limiter that can hold 3 keys, with "busy" still throttled
+        RateLimiter limiter = new RateLimiter(1, 1, 3);
+        limiter.tryAcquire("busy", NOW + TimeUnit.SECONDS.toNanos(10));
+        limiter.tryAcquire("idle-1", NOW);
+        limiter.tryAcquire("idle-2", NOW);
+
+        // When a new key arrives after the idle buckets refilled
+        long later = NOW + TimeUnit.SECONDS.toNanos(10);
+        limiter.tryAcquire("new", later);
+
+        // Then the idle buckets were dropped and "busy" kept its state
+        assertThat(limiter.size()).isEqualTo(2);
+        assertThat(limiter.tryAcquire("busy", later)).isPositive();
+    }
+
+    @Test
+    void properties_WithZeroBurstOrRate_ShouldFailBinding() {
+        // Given
+        Map<String, String> zeroBurst = Map.of(
+                "users.rate-limit.routes[0].pattern", "/api/v1/login",
+                "users.rate-limit.routes[0].permits-per-second", "5",
+                "users.rate-limit.routes[0].burst", "0");
+        Map<String, String> zeroRate = Map.of(
+                "users.rate-limit.routes[0].pattern", "/api/v1/login",
+                "users.rate-limit.routes[0].permits-per-second", "0",
+                "users.rate-limit.routes[0].burst", "10");
+
+        // When & Then
+        assertThatThrownBy(() -> bind(zeroBurst)).isInstanceOf(BindException.class)
+                .rootCause().hasMessageContaining("burst");
+        assertThatThrownBy(() -> bind(zeroRate)).isInstanceOf(BindException.class)
+                .rootCause().hasMessageContaining("permits-per-second");
+    }
+
+    private static RateLimitProperties bind(Map<String, String> properties) {
+        return new Binder(new MapConfigurationPropertySource(properties))
+                .bind("users.rate-limit", RateLimitProperties.class).get();
+    }
+}
@@ -0,0 +1,111 @@
+package com.armancodeblock.user_rest_api.readmodel;
+
+import com.armancodeblock.user_rest_api.enity.User;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CompactUserStoreTest {
+
+    @Test
+    void putGetRemove_ShouldBehaveLikeAMapWhileGrowing() {
+        // Given a store sized far below what goes in
+        CompactUserStore store = new CompactUserStore(16);
+
+        // When
+        for (long id = 1; id <= 10_000; id++) {
+            store.put(new User(id, "User " + (id % 100), "user" + id + "@example.com"));
+        }
+        store.put(new User(42L, "Renamed", null));
+        for (long id = 1; id <= 10_000; id += 2) {
+            store.remove(id);
+        }
+
+        // Then every remaining id is still reachable after the backward shifts
+        assertThat(store.size()).isEqualTo(5_000);
+        assertThat(store.get(1L)).isNull();
+        assertThat(store.get(42L)).extracting(User::getName, User::getEmail).containsExactly("Renamed", null);
+        for (long id = 2; id <= 10_000; id += 2) {
+            if (id != 42) {
+                assertThat(store.get(id).getEmail()).isEqualTo("user" + id + "@example.com");
+            }
+        }
+        assertThat(store.remove(1L)).isFalse();
+    }
+
+    @Test
+    void putIfAbsent_ShouldNotOverwriteAWrite() {
+        // Given
+        CompactUserStore store = new CompactUserStore(16);
+        store.put(new User(1L, "New Name", "new@example.com"));
+
+        // When a read that loaded the old row fills late
+        store.putIfAbsent(new User(1L, "Old Name", "old@example.com"));
+
+        // Then
+        assertThat(store.get(1L).getName()).isEqualTo("New Name");
+    }
+
+    @Test
+    void repeatedNamesAndRewrites_ShouldNotGrowTheArena() {
+        // Given
+        CompactUserStore store = new CompactUserStore(1_000);
+        for (long id = 1; id <= 1_000; id++) {
+            store.put(new User(id, "John Smith", "user" + id + "@example.com"));
+        }
+        long footprint = store.footprintBytes();
+
+        // When the same users are rewritten many times
+        for (int round = 0; round < 50; round++) {
+            for (long id = 1; id <= 1_000; id++) {
+                store.put(new User(id, "John Smith", "user" + id + "-" + round + "@example.com"));
+            }
+        }
+
+        // Then garbage is compacted away and the name is stored once
+        assertThat(store.footprintBytes()).isLessThan(footprint * 2);
+        assertThat(store.get(500L).getEmail()).isEqualTo("user500-49@example.com");
+    }
+
+    @Test
+    void concurrentReads_ShouldNeverSeeAHalfWrittenUser() throws Exception {
+        // Given
+        CompactUserStore store = new CompactUserStore(16);
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicReference<String> torn = new AtomicReference<>();
+        Thread[] readers = new Thread[4];
+        for (int r = 0; r < readers.length; r++) {
+            readers[r] = new Thread(() -> {
+                while (running.get()) {
+                    User user = store.get(ThreadLocalRandom.current().nextLong(1, 500));
+                    // name and email are always written as a pair with the same number
+                    if (user != null && !user.getEmail().startsWith(user.getName().substring(5) + "@")) {
+                        torn.set(user.toString());
+                    }
+                }
+            });
+            readers[r].start();
+        }
+
+        // When one writer keeps growing, rewriting and removing
+        for (int i = 0; i < 200_000; i++) {
+            long id = ThreadLocalRandom.current().nextLong(1, 500);
+            if (i % 7 == 0) {
+                store.remove(id);
+            } else {
+                store.put(new User(id, "User " + i, i + "@example.com"));
+            }
+        }
+        running.set(false);
+        for (Thread reader : readers) {
+            reader.join();
+        }
+
+        // Then
+        assertThat(torn.get()).isNull();
+    }
+}
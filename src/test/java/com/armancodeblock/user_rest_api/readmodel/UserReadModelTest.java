@@ -0,0 +1,96 @@
+package com.armancodeblock.user_rest_api.readmodel;
+
+import com.armancodeblock.user_rest_api.cache.InMemoryCacheInvalidationBus;
+import com.armancodeblock.user_rest_api.cache.UserCacheProperties;
+import com.armancodeblock.user_rest_api.changefeed.ChangeFeed;
+import com.armancodeblock.user_rest_api.changefeed.ChangeFeedProperties;
+import com.armancodeblock.user_rest_api.enity.User;
+import com.armancodeblock.user_rest_api.repository.UserChangeRepository;
+import com.armancodeblock.user_rest_api.repository.UserRepository;
+import com.armancodeblock.user_rest_api.service.UserService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.DefaultApplicationArguments;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// The read model here is a second node: its invalidation bus is its own, so the service's writes reach it only
+// through the user_changes journal. Not @Transactional, the catch-up reads committed rows.
+@SpringBootTest
+@ActiveProfiles("test")
+class UserReadModelTest {
+
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private UserChangeRepository changeRepository;
+    @Autowired
+    private ChangeFeed changeFeed;
+    @Autowired
+    private ChangeFeedProperties changeFeedProperties;
+
+    private UserReadModel readModel;
+
+    @BeforeEach
+    void setUp() {
+        userRepository.deleteAll();
+        // the scheduled catch-up doesn't come round during a test, it is called directly
+        readModel = new UserReadModel(new ReadModelProperties(true, 16, false, 100, Duration.ofHours(1)),
+                new UserCacheProperties(true, 100, Duration.ofSeconds(30), Duration.ofMinutes(5), Duration.ofSeconds(10)),
+                userRepository, changeRepository, changeFeed, changeFeedProperties, new InMemoryCacheInvalidationBus(),
+                new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    void tearDown() {
+        readModel.stop();
+    }
+
+    @Test
+    void catchUp_ShouldApplyWritesTheBusNeverDelivered() {
+        // Given users this node has loaded
+        User updated = userService.createUser(new User("Old Name", "old@example.com"));
+        User deleted = userService.createUser(new User("Gone User", "gone@example.com"));
+        readModel.run(new DefaultApplicationArguments());
+        readModel.offer(updated);
+        readModel.offer(deleted);
+
+        // and writes on another node
+        userService.updateUser(updated.getUserId(), new User("New Name", "new@example.com"));
+        userService.deleteUserById(deleted.getUserId());
+        User added = userService.createUser(new User("Added User", "added@example.com"));
+
+        // When
+        readModel.catchUp();
+
+        // Then
+        assertThat(readModel.get(updated.getUserId()).getName()).isEqualTo("New Name");
+        assertThat(readModel.get(deleted.getUserId())).isNull();
+        assertThat(readModel.get(added.getUserId()).getEmail()).isEqualTo("added@example.com");
+    }
+
+    @Test
+    void offer_AfterCatchUp_ShouldNotPutBackTheVersionReadBeforeTheChange() {
+        // Given a read that loaded a user before another node changed it
+        User user = userService.createUser(new User("Old Name", "old@example.com"));
+        readModel.run(new DefaultApplicationArguments());
+        User loadedBefore = new User(user.getUserId(), "Old Name", "old@example.com");
+        userService.deleteUserById(user.getUserId());
+        readModel.catchUp();
+
+        // When the read finishes late
+        readModel.offer(loadedBefore);
+
+        // Then
+        assertThat(readModel.get(user.getUserId())).isNull();
+    }
+}
@@ -0,0 +1,64 @@
+package com.armancodeblock.user_rest_api.service;
+
+import com.armancodeblock.user_rest_api.enity.User;
+import com.armancodeblock.user_rest_api.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// Reads only take a connection when they have to go to the database: an exhausted pool must not fail cache hits.
+@SpringBootTest
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+        "spring.datasource.hikari.maximum-pool-size=2",
+        "spring.datasource.hikari.connection-timeout=250"
+})
+class UserServicePoolTest {
+
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private DataSource dataSource;
+
+    @BeforeEach
+    void setUp() {
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void getUserById_WithEveryConnectionHeld_ShouldStillServeACachedUser() throws Exception {
+        // Given a user in L1 and another one that isn't cached
+        User cached = userService.createUser(new User("Cached User", "cached@example.com"));
+        User uncached = userService.createUser(new User("Uncached User", "uncached@example.com"));
+        userService.getUserById(cached.getUserId());
+
+        List<Connection> held = new ArrayList<>();
+        try {
+            // When every pool connection is taken
+            held.add(dataSource.getConnection());
+            held.add(dataSource.getConnection());
+
+            // Then the cache hit is served and only the miss needs (and fails to get) a connection
+            assertThat(userService.getUserById(cached.getUserId()).getName()).isEqualTo("Cached User");
+            assertThatThrownBy(() -> userService.getUserById(uncached.getUserId()))
+                    .hasStackTraceContaining("Connection is not available");
+        } finally {
+            for (Connection connection : held) {
+                connection.close();
+            }
+        }
+    }
+}
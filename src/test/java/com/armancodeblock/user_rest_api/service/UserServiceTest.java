@@ -1,15 +1,34 @@
 package com.armancodeblock.user_rest_api.service;
 
+import com.armancodeblock.user_rest_api.audit.AuditEvent;
+import com.armancodeblock.user_rest_api.audit.AuditLog;
+import com.armancodeblock.user_rest_api.cache.InMemoryCacheInvalidationBus;
+import com.armancodeblock.user_rest_api.cache.InMemorySharedCache;
+import com.armancodeblock.user_rest_api.cache.UserCache;
+import com.armancodeblock.user_rest_api.cache.UserCacheProperties;
+import com.armancodeblock.user_rest_api.changefeed.ChangeFeed;
+import com.armancodeblock.user_rest_api.concurrency.AdaptiveConcurrencyLimiter;
+import com.armancodeblock.user_rest_api.concurrency.ConcurrencyLimitProperties;
+import com.armancodeblock.user_rest_api.concurrency.Priority;
+import com.armancodeblock.user_rest_api.concurrency.SingleFlight;
 import com.armancodeblock.user_rest_api.enity.User;
+import com.armancodeblock.user_rest_api.enity.UserChange;
 import com.armancodeblock.user_rest_api.exception.ResourceNotFoundException;
+import com.armancodeblock.user_rest_api.exception.ServiceOverloadedException;
+import com.armancodeblock.user_rest_api.readmodel.UserReadModel;
 import com.armancodeblock.user_rest_api.repository.UserRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
 
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
@@ -19,12 +38,31 @@ import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
 import static org.assertj.core.api.AssertionsForClassTypes.assertThatThrownBy;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.when;
 import  static org.mockito.Mockito.*;
 @ExtendWith(MockitoExtension.class)
 class UserServiceTest {
   @Mock
     private UserRepository userRepository;
+  @Mock
+  private AuditLog auditLog;
+  @Mock
+  private ChangeFeed changeFeed;
+  @Mock
+  private UserReadModel readModel;
+  @Mock
+  private PlatformTransactionManager transactionManager;
+  @Spy
+  private AdaptiveConcurrencyLimiter concurrencyLimiter = new AdaptiveConcurrencyLimiter(
+          new ConcurrencyLimitProperties(true, 20, 4, 200, Duration.ofMillis(250), 0.9,
+          Duration.ofMillis(100)), new SimpleMeterRegistry());
+  @Spy
+  private SingleFlight singleFlight = new SingleFlight(Duration.ofSeconds(2), new SimpleMeterRegistry());
+  @Spy
+  private UserCache userCache = new UserCache(new UserCacheProperties(true, 100, Duration.ofSeconds(30), Duration.ofMinutes(5),
+                Duration.ofSeconds(10)),
+          new InMemorySharedCache(), new InMemoryCacheInvalidationBus(), singleFlight, new ObjectMapper(), new SimpleMeterRegistry());
   @InjectMocks
   private UserService userService;
 
@@ -49,6 +87,7 @@ class UserServiceTest {
     assertThat(result.getName()).isEqualTo("John Doe");
     assertThat(result.getEmail()).isEqualTo("john@spring.com");
     verify(userRepository,times(1)).save(testUser);
+    verify(auditLog).record(AuditEvent.Action.CREATE, testUser.getUserId(), testUser);
   }
 
 @Test
@@ -77,5 +116,38 @@ class UserServiceTest {
       verify(userRepository,times(1)).findById(userId);
   }
 
+  @Test
+  void deleteUserById_WithExistingUser_ShouldJournalAndAudit(){
+      //Given
+      Long userId = 23L;
+      when(userRepository.deleteByUserId(userId)).thenReturn(1);
+      //When
+      userService.deleteUserById(userId);
+      //Then
+      verify(changeFeed).append(UserChange.Action.DELETE, userId, null);
+      verify(auditLog).record(AuditEvent.Action.DELETE, userId, null);
+  }
+
+  @Test
+  void deleteUserById_WithUnknownUserId_ShouldNotJournalOrAudit(){
+      //Given
+      Long userId = 404L;
+      when(userRepository.deleteByUserId(userId)).thenReturn(0);
+      //When
+      userService.deleteUserById(userId);
+      //Then
+      verifyNoInteractions(changeFeed, auditLog, readModel);
+  }
+
+  @Test
+  void createUser_WhenShed_ShouldNotOpenATransaction(){
+      //Given the limiter rejects writes
+      doThrow(new ServiceOverloadedException("Service is overloaded, retry later"))
+              .when(concurrencyLimiter).execute(eq(Priority.WRITE), any());
+      //When & Then
+      assertThatThrownBy(()->userService.createUser(testUser))
+              .isInstanceOf(ServiceOverloadedException.class);
+      verifyNoInteractions(transactionManager, userRepository);
+  }
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,79 @@
+package com.armancodeblock.user_rest_api.snapshot;
+
+import com.armancodeblock.user_rest_api.enity.User;
+import com.armancodeblock.user_rest_api.readmodel.CompactUserStore;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class UserSnapshotFormatTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void write_ThenRead_ShouldRoundTripTheStoreAndHeader() throws IOException {
+        // Given
+        Path file = dir.resolve("users.bin");
+        Instant createdAt = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+        CompactUserStore store = new CompactUserStore(16);
+        store.put(new User(1L, "John Doe", "john@example.com"));
+        store.put(new User(2L, "Zoë Ünicode", "zoe@example.com"));
+        store.put(new User(3L, null, "noname@example.com"));
+
+        // When
+        UserSnapshotFormat.write(file, 42, createdAt, store.image());
+        UserSnapshot snapshot = UserSnapshotFormat.read(file);
+        CompactUserStore restored = new CompactUserStore(16);
+        restored.restore(snapshot.image());
+
+        // Then
+        assertThat(snapshot.seq()).isEqualTo(42);
+        assertThat(snapshot.createdAt()).isEqualTo(createdAt);
+        assertThat(restored.size()).isEqualTo(3);
+        assertThat(restored.get(2L).getName()).isEqualTo("Zoë Ünicode");
+        assertThat(restored.get(3L).getName()).isNull();
+        assertThat(restored.get(3L).getEmail()).isEqualTo("noname@example.com");
+
+        // and the restored store keeps working
+        restored.put(new User(4L, "John Doe", "john4@example.com"));
+        restored.remove(1L);
+        assertThat(restored.get(4L).getName()).isEqualTo("John Doe");
+        assertThat(restored.get(1L)).isNull();
+    }
+
+    @Test
+    void read_WithUnknownVersionOrCorruptSections_ShouldFail() throws IOException {
+        // Given
+        Path file = dir.resolve("users.bin");
+        CompactUserStore store = new CompactUserStore(16);
+        store.put(new User(1L, "John Doe", "john@example.com"));
+        UserSnapshotFormat.write(file, 1, Instant.now(), store.image());
+
+        // When corrupting one byte of the sections
+        try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "rw")) {
+            raf.seek(UserSnapshotFormat.HEADER_SIZE + 12);
+            raf.write('X');
+        }
+
+        // Then
+        assertThatThrownBy(() -> UserSnapshotFormat.read(file)).hasMessageContaining("checksum");
+
+        // When bumping the version
+        try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "rw")) {
+            raf.seek(4);
+            raf.writeShort(UserSnapshotFormat.VERSION + 1);
+        }
+
+        // Then
+        assertThatThrownBy(() -> UserSnapshotFormat.read(file)).hasMessageContaining("version");
+    }
+}
@@ -0,0 +1,113 @@
+package com.armancodeblock.user_rest_api.snapshot;
+
+import com.armancodeblock.user_rest_api.cache.InMemoryCacheInvalidationBus;
+import com.armancodeblock.user_rest_api.cache.UserCacheProperties;
+import com.armancodeblock.user_rest_api.changefeed.ChangeFeed;
+import com.armancodeblock.user_rest_api.changefeed.ChangeFeedProperties;
+import com.armancodeblock.user_rest_api.enity.User;
+import com.armancodeblock.user_rest_api.readmodel.ReadModelProperties;
+import com.armancodeblock.user_rest_api.readmodel.UserReadModel;
+import com.armancodeblock.user_rest_api.repository.UserChangeRepository;
+import com.armancodeblock.user_rest_api.repository.UserRepository;
+import com.armancodeblock.user_rest_api.service.UserService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.DefaultApplicationArguments;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// Not @Transactional: the catch-up reads committed journal rows. The nodes here are fresh read models next to the
+// application's one.
+@SpringBootTest
+@ActiveProfiles("test")
+class UserSnapshotterTest {
+
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private UserChangeRepository changeRepository;
+    @Autowired
+    private ChangeFeed changeFeed;
+    @Autowired
+    private ChangeFeedProperties changeFeedProperties;
+
+    @TempDir
+    Path dir;
+
+    @BeforeEach
+    void setUp() {
+        // the replay reaches gapTimeout back, past rows earlier tests left for users deleteAll removed unjournaled
+        userRepository.deleteAll();
+        changeRepository.deleteAll();
+    }
+
+    private UserReadModel readModel(boolean enabled) {
+        return new UserReadModel(new ReadModelProperties(enabled, 16, false, 100, Duration.ofSeconds(1)),
+                new UserCacheProperties(true, 100, Duration.ofSeconds(30), Duration.ofMinutes(5), Duration.ofSeconds(10)),
+                userRepository, changeRepository, changeFeed, changeFeedProperties, new InMemoryCacheInvalidationBus(),
+                new SimpleMeterRegistry());
+    }
+
+    private UserSnapshotter snapshotter(UserReadModel readModel) {
+        return new UserSnapshotter(readModel, changeRepository,
+                new SnapshotProperties(true, dir.resolve("users.bin"), Duration.ofMinutes(1), Duration.ofDays(1)),
+                new SimpleMeterRegistry());
+    }
+
+    @Test
+    void restore_ShouldLoadTheReadModelCaughtUpFromChangeFeed() {
+        // Given a snapshot of a warm read model
+        UserReadModel before = readModel(true);
+        User kept = userService.createUser(new User("Kept User", "kept@example.com"));
+        User updated = userService.createUser(new User("Old Name", "old@example.com"));
+        User deleted = userService.createUser(new User("Gone User", "gone@example.com"));
+        for (User user : new User[]{kept, updated, deleted}) {
+            before.offer(user);
+        }
+        snapshotter(before).write();
+
+        // and changes after it
+        userService.updateUser(updated.getUserId(), new User("New Name", "new@example.com"));
+        userService.deleteUserById(deleted.getUserId());
+        User added = userService.createUser(new User("Added User", "added@example.com"));
+
+        // When a restarted node restores it
+        UserReadModel restarted = readModel(true);
+        int restored = snapshotter(restarted).restore();
+
+        // Then the read model answers without the database, with the current state
+        assertThat(restored).isEqualTo(3);
+        assertThat(restarted.get(kept.getUserId()).getName()).isEqualTo("Kept User");
+        assertThat(restarted.get(updated.getUserId()).getName()).isEqualTo("New Name");
+        assertThat(restarted.get(deleted.getUserId())).isNull();
+        assertThat(restarted.get(added.getUserId()).getName()).isEqualTo("Added User");
+    }
+
+    @Test
+    void restore_WithoutSnapshot_ShouldStartCold() {
+        // When
+        int restored = snapshotter(readModel(true)).restore();
+
+        // Then
+        assertThat(restored).isZero();
+    }
+
+    @Test
+    void run_WithoutReadModel_ShouldFail() {
+        // When & Then
+        assertThatThrownBy(() -> snapshotter(readModel(false)).run(new DefaultApplicationArguments()))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("users.read-model.enabled");
+    }
+}
@@ -0,0 +1,98 @@
+package com.armancodeblock.user_rest_api.startup;
+
+import com.armancodeblock.user_rest_api.enity.User;
+import com.armancodeblock.user_rest_api.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// A real port so the loopback requests go through Tomcat and the filter chain too.
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+        "users.warmup.enabled=true",
+        "users.warmup.min-rounds=2",
+        "users.warmup.iterations-per-round=20",
+        "users.warmup.max-duration=5s"
+})
+class JitWarmupTest {
+
+    @Autowired
+    private JitWarmup warmup;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private MeterRegistry meterRegistry;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void warmUp_ShouldNotWriteAnything() {
+        // Given
+        userRepository.save(new User("Existing User", "existing@example.com"));
+
+        // When
+        String outcome = warmup.warmUp();
+
+        // Then
+        assertThat(outcome).isIn("settled", "budget");
+        assertThat(userRepository.findAll()).extracting(User::getName).containsExactly("Existing User");
+    }
+
+    @Test
+    void warmUp_ShouldRequestFoundUsersWithoutCountingErrors() {
+        // Given
+        userRepository.save(new User("Existing User", "existing@example.com"));
+        double before = userRequests("200");
+
+        // When
+        warmup.warmUp();
+
+        // Then the loopback GETs took the 200 path, none of them a 404
+        assertThat(userRequests("200")).isGreaterThan(before);
+        assertThat(userRequests("404")).isZero();
+        assertThat(meterRegistry.find("users.errors").tag("status", "404").counter()).isNull();
+    }
+
+    @Test
+    void warmUp_WithANameTooShortForAPrefix_ShouldNotFail() {
+        // Given a row the entity validation would have refused
+        jdbcTemplate.update("INSERT INTO users (name, email) VALUES ('A', 'short@example.com')");
+
+        // When
+        String outcome = warmup.warmUp();
+
+        // Then
+        assertThat(outcome).isIn("settled", "budget");
+    }
+
+    @Test
+    void run_ShouldHaveRecordedTheWarmUpBeforeTheContextWasReady() {
+        // When: the runner already ran at startup
+
+        // Then
+        Timer duration = meterRegistry.find("users.warmup.duration").timer();
+        assertThat(duration).isNotNull();
+        assertThat(duration.count()).isGreaterThanOrEqualTo(1);
+        assertThat(duration.getId().getTag("outcome")).isNotEqualTo("failed");
+    }
+
+    private double userRequests(String status) {
+        Timer requests = meterRegistry.find("http.server.requests")
+                .tag("uri", "/api/v1/users/{userId}").tag("status", status).timer();
+        return requests == null ? 0 : requests.count();
+    }
+}
@@ -0,0 +1,39 @@
+package com.armancodeblock.user_rest_api.web;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.http.server.ServletServerHttpResponse;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CacheControlAdviceTest {
+
+    @Test
+    void beforeBodyWrite_ShouldAddToAnExistingVary() throws Exception {
+        // Given a cacheable route and a response that already varies on Origin (CORS)
+        CacheControlAdvice advice = new CacheControlAdvice(
+                new CacheControlProperties(Map.of("/api/v1/users/{userId}", Duration.ofSeconds(30))));
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/users/1");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/v1/users/{userId}");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        response.addHeader("Vary", "Origin");
+        ServletServerHttpResponse serverResponse = new ServletServerHttpResponse(response);
+
+        // When
+        advice.beforeBodyWrite("body", null, MediaType.APPLICATION_JSON, MappingJackson2HttpMessageConverter.class,
+                new ServletServerHttpRequest(request), serverResponse);
+        serverResponse.flush();
+
+        // Then
+        assertThat(response.getHeaders("Vary")).containsExactly("Origin, Accept, Accept-Encoding");
+        assertThat(response.getHeader("Cache-Control")).isEqualTo("max-age=30, public");
+    }
+}
@@ -0,0 +1,65 @@
+#!/bin/bash
+
+# Startup benchmark: time to first successful request and resident memory after it, for
+#   jar           plain executable jar
+#   aot+cds       faststart build: AOT bean definitions + CDS archive
+#   aot+cds+lazy  same with spring.main.lazy-initialization=true
+#
+# Build first:  ./mvnw -Pfaststart -DskipTests package
+# Usage:        ./startup-benchmark.sh [runs]
+# Environment:  APP_ARGS       extra application arguments, e.g. "--spring.datasource.url=jdbc:postgresql://db:5432/user_db"
+#               FIRST_REQUEST  path that counts as the first request (default /actuator/health/liveness)
+#               PORT           default 8090
+
+RUNS=${1:-5}
+PORT=${PORT:-8090}
+FIRST_REQUEST=${FIRST_REQUEST:-/actuator/health/liveness}
+JAR=$(ls target/user-rest-api-*.jar 2>/dev/null | grep -v original | head -1)
+FASTSTART_DIR=target/faststart
+FASTSTART_JAR=$(ls $FASTSTART_DIR/user-rest-api-*.jar 2>/dev/null | head -1)
+
+if [ -z "$JAR" ] || [ -z "$FASTSTART_JAR" ] || [ ! -f "$FASTSTART_DIR/application.jsa" ]; then
+    echo "Build first: ./mvnw -Pfaststart -DskipTests package"
+    exit 1
+fi
+
+# one run: prints "<ms to first request> <rss in MB>"
+function measure() {
+    local start=$(date +%s%N)
+    "$@" --server.port=$PORT $APP_ARGS > target/startup-benchmark.log 2>&1 &
+    local pid=$!
+    until curl -sf -o /dev/null "http://localhost:$PORT$FIRST_REQUEST"; do
+        if ! kill -0 $pid 2>/dev/null; then
+            echo "application exited, see target/startup-benchmark.log" >&2
+            return 1
+        fi
+        sleep 0.02
+    done
+    local end=$(date +%s%N)
+    local rss=$(awk '/VmRSS/ {print $2}' /proc/$pid/status)
+    kill $pid
+    wait $pid 2>/dev/null
+    echo "$(( (end - start) / 1000000 )) $(( rss / 1024 ))"
+}
+
+function median() {
+    sort -n | awk '{a[NR]=$1} END {print a[int((NR + 1) / 2)]}'
+}
+
+function bench() {
+    local name=$1
+    shift
+    local results=()
+    for i in $(seq 1 $RUNS); do
+        results+=("$(measure "$@")") || exit 1
+    done
+    local ttfr=$(printf '%s\n' "${results[@]}" | cut -d' ' -f1 | median)
+    local rss=$(printf '%s\n' "${results[@]}" | cut -d' ' -f2 | median)
+    printf "%-14s %10s ms %8s MB\n" "$name" "$ttfr" "$rss"
+}
+
+echo "Startup benchmark, median of $RUNS runs, first request: $FIRST_REQUEST"
+printf "%-14s %13s %11s\n" "variant" "first request" "RSS"
+bench "jar" java -jar "$JAR"
+bench "aot+cds" java -XX:SharedArchiveFile=$FASTSTART_DIR/application.jsa -Dspring.aot.enabled=true -jar "$FASTSTART_JAR"
+bench "aot+cds+lazy" java -XX:SharedArchiveFile=$FASTSTART_DIR/application.jsa -Dspring.aot.enabled=true -jar "$FASTSTART_JAR" --spring.main.lazy-initialization=true